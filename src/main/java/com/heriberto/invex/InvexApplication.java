@@ -2,12 +2,20 @@ package com.heriberto.invex;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class InvexApplication {
 
+	// Pasos de arranque guardados para el informe de tiempos (InformeArranque)
+	private static final int CAPACIDAD_PASOS_ARRANQUE = 10000;
+
 	public static void main(String[] args) {
-		SpringApplication.run(InvexApplication.class, args);
+		SpringApplication aplicacion = new SpringApplication(InvexApplication.class);
+		aplicacion.setApplicationStartup(new BufferingApplicationStartup(CAPACIDAD_PASOS_ARRANQUE));
+		aplicacion.run(args);
 	}
 
 }
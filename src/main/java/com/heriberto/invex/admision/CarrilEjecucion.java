@@ -0,0 +1,178 @@
+package com.heriberto.invex.admision;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Carril de ejecución acotado (bulkhead) con límite de concurrencia adaptable.
+ * 
+ * Admite hasta {@code limite} peticiones simultáneas y deja esperar como
+ * máximo {@code colaMaxima} más durante {@code esperaMaxima}; el resto se
+ * rechaza. Cada {@code ventana} peticiones completadas se compara la latencia
+ * media con la latencia objetivo: si la supera el límite se reduce un 25 %
+ * y, si no, crece en uno cuando el carril llegó a saturarse (AIMD).
+ * 
+ * Usa {@link ReentrantLock} en lugar de monitores para que las esperas no
+ * fijen el hilo portador cuando se ejecuta sobre hilos virtuales.
+ */
+public class CarrilEjecucion {
+
+    private static final int VENTANA = 20;
+
+    private final String nombre;
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final int colaMaxima;
+    private final long esperaMaximaNanos;
+    private final long latenciaObjetivoNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition liberado = lock.newCondition();
+
+    private int limite;
+    private int enCurso;
+    private int enEspera;
+    private long rechazadas;
+
+    private int muestras;
+    private long latenciaAcumulada;
+    private boolean saturado;
+    private long latenciaMedia;
+
+    public CarrilEjecucion(String nombre, int limiteMinimo, int limiteMaximo, int colaMaxima, long esperaMaximaMs,
+            long latenciaObjetivoMs) {
+        if (limiteMinimo < 1 || limiteMaximo < limiteMinimo) {
+            throw new IllegalArgumentException("Límites inválidos para el carril " + nombre);
+        }
+        this.nombre = nombre;
+        this.limiteMinimo = limiteMinimo;
+        this.limiteMaximo = limiteMaximo;
+        this.colaMaxima = colaMaxima;
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+        this.latenciaObjetivoNanos = TimeUnit.MILLISECONDS.toNanos(latenciaObjetivoMs);
+        this.limite = limiteMaximo;
+    }
+
+    /**
+     * Intenta ocupar un lugar en el carril, esperando en la cola si hay sitio.
+     * 
+     * @return true si se admitió la petición; false si debe rechazarse.
+     */
+    public boolean adquirir() throws InterruptedException {
+        lock.lock();
+        try {
+            if (enCurso < limite) {
+                enCurso++;
+                saturado |= enCurso == limite;
+                return true;
+            }
+            if (enEspera >= colaMaxima) {
+                rechazadas++;
+                return false;
+            }
+
+            enEspera++;
+            try {
+                long restante = esperaMaximaNanos;
+                while (enCurso >= limite) {
+                    if (restante <= 0) {
+                        rechazadas++;
+                        return false;
+                    }
+                    restante = liberado.awaitNanos(restante);
+                }
+                enCurso++;
+                saturado = true;
+                return true;
+            } finally {
+                enEspera--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Libera el lugar ocupado y registra la latencia observada.
+     */
+    public void liberar(long latenciaNanos) {
+        lock.lock();
+        try {
+            enCurso--;
+            latenciaAcumulada += latenciaNanos;
+            if (++muestras >= VENTANA) {
+                ajustarLimite(latenciaAcumulada / muestras);
+                muestras = 0;
+                latenciaAcumulada = 0;
+                saturado = false;
+            }
+            liberado.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void ajustarLimite(long media) {
+        latenciaMedia = media;
+        if (media > latenciaObjetivoNanos) {
+            limite = Math.max(limiteMinimo, limite * 3 / 4);
+        } else if (saturado) {
+            limite = Math.min(limiteMaximo, limite + 1);
+        }
+    }
+
+    /**
+     * Segundos sugeridos al cliente antes de reintentar, estimados con la
+     * latencia media y la cola actual.
+     */
+    public long segundosReintento() {
+        lock.lock();
+        try {
+            long estimado = latenciaMedia * (enEspera + 1) / Math.max(1, limite);
+            return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(estimado) + 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public int getLimite() {
+        lock.lock();
+        try {
+            return limite;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getEnCurso() {
+        lock.lock();
+        try {
+            return enCurso;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getEnEspera() {
+        lock.lock();
+        try {
+            return enEspera;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRechazadas() {
+        lock.lock();
+        try {
+            return rechazadas;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,183 @@
+package com.heriberto.invex.admision;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Control de admisión para la API de empleados.
+ * 
+ * Separa el tráfico en carriles independientes (escrituras masivas,
+ * listados/exportaciones, lecturas puntuales y streams) para que un lote
+ * grande no agote los hilos de Tomcat ni las conexiones de Hikari que
+ * necesitan las consultas por id. Cuando un carril está lleno la petición se
+ * rechaza con 429 y la cabecera Retry-After.
+ * 
+ * Los streams ocupan su lugar durante toda la respuesta, así que tienen un
+ * carril de límite fijo: su duración no es una latencia comparable y, en el
+ * carril de listados, haría caer el límite de GET /api/empleados.
+ * 
+ * Con hilos virtuales Tomcat deja de acotar la concurrencia, por lo que los
+ * límites se reducen en proporción hasta que su suma cabe en el pool de
+ * conexiones de Hikari, descontando una conexión por hilo del planificador:
+ * las tareas programadas (reconstrucción del índice, recálculo de
+ * estadísticas, vaciado de la escritura diferida, archivado y recarga de
+ * catálogos) también toman conexiones del pool.
+ */
+@Component
+public class ControlAdmisionInterceptor implements HandlerInterceptor {
+
+    private static final String ATRIBUTO_CARRIL = ControlAdmisionInterceptor.class.getName() + ".carril";
+    private static final String ATRIBUTO_INICIO = ControlAdmisionInterceptor.class.getName() + ".inicio";
+    private static final String RUTA_EMPLEADOS = "/api/empleados";
+
+    private static final Logger logger = LoggerFactory.getLogger(ControlAdmisionInterceptor.class);
+
+    private final CarrilEjecucion escrituraMasiva;
+    private final CarrilEjecucion listado;
+    private final CarrilEjecucion lecturaPuntual;
+    private final CarrilEjecucion stream;
+    private final int conexionesProgramadas;
+
+    public ControlAdmisionInterceptor(
+            @Value("${invex.admision.escritura-masiva.limite:4}") int limiteEscritura,
+            @Value("${invex.admision.escritura-masiva.cola:8}") int colaEscritura,
+            @Value("${invex.admision.escritura-masiva.latencia-objetivo-ms:5000}") long objetivoEscritura,
+            @Value("${invex.admision.listado.limite:8}") int limiteListado,
+            @Value("${invex.admision.listado.cola:16}") int colaListado,
+            @Value("${invex.admision.listado.latencia-objetivo-ms:2000}") long objetivoListado,
+            @Value("${invex.admision.lectura.limite:64}") int limiteLectura,
+            @Value("${invex.admision.lectura.cola:128}") int colaLectura,
+            @Value("${invex.admision.lectura.latencia-objetivo-ms:100}") long objetivoLectura,
+            @Value("${invex.admision.stream.limite:4}") int limiteStream,
+            @Value("${invex.admision.stream.cola:4}") int colaStream,
+            @Value("${invex.admision.espera-maxima-ms:500}") long esperaMaxima,
+            @Value("${invex.hilos-virtuales.habilitado:false}") boolean hilosVirtuales,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int conexiones,
+            @Value("${spring.task.scheduling.pool.size:1}") int hilosProgramados) {
+        this.conexionesProgramadas = hilosProgramados;
+        if (hilosVirtuales) {
+            int[] limites = acotar(new int[] { limiteEscritura, limiteListado, limiteLectura, limiteStream },
+                    conexiones - hilosProgramados);
+            limiteEscritura = limites[0];
+            limiteListado = limites[1];
+            limiteLectura = limites[2];
+            limiteStream = limites[3];
+        }
+        this.escrituraMasiva = new CarrilEjecucion("escritura-masiva", 1, limiteEscritura, colaEscritura,
+                esperaMaxima, objetivoEscritura);
+        this.listado = new CarrilEjecucion("listado", 1, limiteListado, colaListado, esperaMaxima, objetivoListado);
+        this.lecturaPuntual = new CarrilEjecucion("lectura", Math.min(2, limiteLectura), limiteLectura, colaLectura,
+                esperaMaxima, objetivoLectura);
+        // Límite mínimo igual al máximo: el ajuste por latencia no lo modifica
+        this.stream = new CarrilEjecucion("stream", limiteStream, limiteStream, colaStream, esperaMaxima,
+                Long.MAX_VALUE);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        // En el despacho asíncrono (p. ej. /stream) la petición ya ocupa su
+        // lugar; se libera en el afterCompletion de ese último despacho
+        if (request.getAttribute(ATRIBUTO_CARRIL) != null) {
+            return true;
+        }
+
+        CarrilEjecucion carril = clasificar(request);
+        if (!carril.adquirir()) {
+            logger.warn("Petición rechazada por saturación del carril {}: {} {}", carril.getNombre(),
+                    request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(carril.segundosReintento()));
+            return false;
+        }
+        request.setAttribute(ATRIBUTO_CARRIL, carril);
+        request.setAttribute(ATRIBUTO_INICIO, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        CarrilEjecucion carril = (CarrilEjecucion) request.getAttribute(ATRIBUTO_CARRIL);
+        if (carril != null) {
+            request.removeAttribute(ATRIBUTO_CARRIL);
+            long inicio = (Long) request.getAttribute(ATRIBUTO_INICIO);
+            carril.liberar(System.nanoTime() - inicio);
+        }
+    }
+
+    // Reparte el pool entre los carriles en proporción a sus límites; cada
+    // carril conserva al menos un lugar
+    static int[] acotar(int[] limites, int conexiones) {
+        int suma = 0;
+        for (int limite : limites) {
+            suma += limite;
+        }
+        if (suma <= conexiones) {
+            return limites;
+        }
+        if (conexiones < limites.length) {
+            throw new IllegalStateException("El pool de " + conexiones + " conexiones no alcanza para los "
+                    + limites.length + " carriles de admisión");
+        }
+        int[] acotados = new int[limites.length];
+        int total = 0;
+        for (int i = 0; i < limites.length; i++) {
+            acotados[i] = 1 + (int) ((long) (limites[i] - 1) * (conexiones - limites.length)
+                    / (suma - limites.length));
+            total += acotados[i];
+        }
+        logger.warn("Límites de los carriles reducidos de {} a {} peticiones simultáneas para no superar el pool "
+                + "de {} conexiones.", suma, total, conexiones);
+        return acotados;
+    }
+
+    CarrilEjecucion clasificar(HttpServletRequest request) {
+        String metodo = request.getMethod();
+        String ruta = request.getRequestURI().substring(request.getContextPath().length());
+        if (ruta.endsWith("/")) {
+            ruta = ruta.substring(0, ruta.length() - 1);
+        }
+
+        if ("POST".equals(metodo)) {
+            return ruta.equals(RUTA_EMPLEADOS + "/snapshot") ? listado : escrituraMasiva;
+        }
+        if ("GET".equals(metodo) && ruta.equals(RUTA_EMPLEADOS + "/stream")) {
+            return stream;
+        }
+        if ("GET".equals(metodo) && (ruta.equals(RUTA_EMPLEADOS) || ruta.equals(RUTA_EMPLEADOS + "/changes"))) {
+            return listado;
+        }
+        return lecturaPuntual;
+    }
+
+    public CarrilEjecucion getEscrituraMasiva() {
+        return escrituraMasiva;
+    }
+
+    public CarrilEjecucion getListado() {
+        return listado;
+    }
+
+    public CarrilEjecucion getLecturaPuntual() {
+        return lecturaPuntual;
+    }
+
+    // Conexiones que pueden ocupar a la vez las tareas programadas
+    public int getConexionesProgramadas() {
+        return conexionesProgramadas;
+    }
+
+    public CarrilEjecucion getStream() {
+        return stream;
+    }
+
+}
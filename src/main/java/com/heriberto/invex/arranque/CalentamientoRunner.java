@@ -0,0 +1,136 @@
+package com.heriberto.invex.arranque;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Calentamiento opcional de la API al arrancar.
+ * 
+ * Los ApplicationRunner se ejecutan con el servidor ya escuchando pero antes
+ * del ApplicationReadyEvent, así que las peticiones locales inicializan el
+ * DispatcherServlet, los conversores de Jackson, los beans perezosos, el pool
+ * de conexiones y las consultas de Hibernate, y dan al JIT las primeras
+ * iteraciones de {@code EmpleadoController}. Esta pasada retrasa la
+ * disponibilidad, por lo que se limita a pocas iteraciones de las rutas que
+ * no dependen de datos en memoria.
+ * 
+ * El índice de nombres y las estadísticas se construyen con el
+ * ApplicationReadyEvent; sus rutas se calientan cuando la aplicación pasa a
+ * aceptar tráfico, que se publica después de esos listeners, para no medir
+ * ni compilar el camino de un índice vacío. Solo se recorren rutas de
+ * lectura: el calentamiento no escribe datos.
+ */
+@Component
+@ConditionalOnProperty(name = "invex.arranque.calentamiento.habilitado", havingValue = "true")
+public class CalentamientoRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalentamientoRunner.class);
+
+    // Rutas relativas a /api/empleados; el id 0 no existe y recorre la respuesta 404
+    static final List<String> RUTAS = Arrays.asList("/count", "/0");
+
+    // Rutas servidas desde el índice y las estadísticas en memoria
+    static final List<String> RUTAS_CON_DATOS = Arrays.asList("/estadisticas", "/buscar?nombre=reyna&limite=5");
+
+    private final RestTemplate restTemplate;
+    private final Environment environment;
+    private final int iteraciones;
+    private final AtomicBoolean rutasConDatos = new AtomicBoolean();
+
+    public CalentamientoRunner(RestTemplateBuilder builder, Environment environment,
+            @Value("${invex.arranque.calentamiento.iteraciones:20}") int iteraciones) {
+        this.restTemplate = builder.errorHandler(new SinErrores()).build();
+        this.environment = environment;
+        this.iteraciones = iteraciones;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String base = base();
+        if (base == null) {
+            logger.info("Calentamiento omitido: no hay servidor web escuchando.");
+            return;
+        }
+        calentar("Calentamiento previo", base, true, RUTAS);
+    }
+
+    // La preparación vuelve a ACCEPTING_TRAFFIC tras una caída; solo se calienta la primera vez
+    @EventListener
+    public void alAceptarTrafico(AvailabilityChangeEvent<ReadinessState> evento) {
+        if (evento.getState() != ReadinessState.ACCEPTING_TRAFFIC || !rutasConDatos.compareAndSet(false, true)) {
+            return;
+        }
+        String base = base();
+        if (base != null) {
+            calentar("Calentamiento de índice y estadísticas", base, false, RUTAS_CON_DATOS);
+        }
+    }
+
+    private String base() {
+        Integer puerto = environment.getProperty("local.server.port", Integer.class);
+        if (puerto == null) {
+            return null;
+        }
+        return "http://localhost:" + puerto + environment.getProperty("server.servlet.context-path", "")
+                + "/api/empleados";
+    }
+
+    private void calentar(String fase, String base, boolean conHead, List<String> rutas) {
+        long inicio = System.nanoTime();
+        int fallidas = 0;
+        for (int i = 0; i < iteraciones; i++) {
+            if (conHead) {
+                fallidas += peticion(HttpMethod.HEAD, base);
+            }
+            for (String ruta : rutas) {
+                fallidas += peticion(HttpMethod.GET, base + ruta);
+            }
+        }
+        logger.info("{} completado: {} peticiones en {} ms ({} fallidas).", fase,
+                iteraciones * (rutas.size() + (conHead ? 1 : 0)), (System.nanoTime() - inicio) / 1_000_000, fallidas);
+    }
+
+    private int peticion(HttpMethod metodo, String url) {
+        try {
+            restTemplate.exchange(url, metodo, null, String.class);
+            return 0;
+        } catch (RestClientException e) {
+            logger.debug("Petición de calentamiento fallida: {} {}", metodo, url, e);
+            return 1;
+        }
+    }
+
+    // Los 404 y 503 también calientan su ruta; no se tratan como errores
+    private static final class SinErrores implements ResponseErrorHandler {
+
+        @Override
+        public boolean hasError(ClientHttpResponse response) {
+            return false;
+        }
+
+        @Override
+        public void handleError(ClientHttpResponse response) {
+        }
+
+    }
+
+}
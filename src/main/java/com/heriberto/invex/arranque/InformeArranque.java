@@ -0,0 +1,135 @@
+package com.heriberto.invex.arranque;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+/**
+ * Informe de los tiempos de arranque.
+ * 
+ * Al quedar lista la aplicación resume los pasos registrados por
+ * {@link BufferingApplicationStartup}: el tiempo acumulado por fase
+ * (creación de beans, arranque de JPA, refresco del contexto...) y los beans
+ * más lentos de crear. Los tiempos de cada paso incluyen los de sus pasos
+ * anidados, por lo que las fases no suman el total.
+ */
+@Component
+public class InformeArranque {
+
+    static final String PASO_BEAN = "spring.beans.instantiate";
+    static final String ETIQUETA_BEAN = "beanName";
+
+    private static final Logger logger = LoggerFactory.getLogger(InformeArranque.class);
+
+    private final int maximoPasos;
+
+    public InformeArranque(@Value("${invex.arranque.informe.maximo-pasos:15}") int maximoPasos) {
+        this.maximoPasos = maximoPasos;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void informar(ApplicationReadyEvent evento) {
+        ApplicationStartup startup = evento.getApplicationContext().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup)) {
+            return;
+        }
+        List<StartupTimeline.TimelineEvent> eventos = ((BufferingApplicationStartup) startup).getBufferedTimeline()
+                .getEvents();
+        StringBuilder informe = new StringBuilder();
+        informe.append("Arranque completado en ").append(evento.getTimeTaken().toMillis()).append(" ms (")
+                .append(eventos.size()).append(" pasos).");
+        informe.append(System.lineSeparator()).append("Fases:");
+        escribir(informe, porFase(eventos, maximoPasos));
+        informe.append(System.lineSeparator()).append("Beans más lentos:");
+        escribir(informe, porBean(eventos, maximoPasos));
+        logger.info(informe.toString());
+    }
+
+    // Tiempo acumulado por nombre de paso, de mayor a menor
+    static List<Fase> porFase(List<StartupTimeline.TimelineEvent> eventos, int maximo) {
+        return agrupar(eventos, maximo, evento -> evento.getStartupStep().getName());
+    }
+
+    // Tiempo de creación de cada bean, de mayor a menor
+    static List<Fase> porBean(List<StartupTimeline.TimelineEvent> eventos, int maximo) {
+        List<StartupTimeline.TimelineEvent> beans = new ArrayList<>();
+        for (StartupTimeline.TimelineEvent evento : eventos) {
+            if (PASO_BEAN.equals(evento.getStartupStep().getName())) {
+                beans.add(evento);
+            }
+        }
+        return agrupar(beans, maximo, InformeArranque::nombreBean);
+    }
+
+    private static List<Fase> agrupar(List<StartupTimeline.TimelineEvent> eventos, int maximo,
+            Function<StartupTimeline.TimelineEvent, String> clave) {
+        Map<String, Fase> fases = new LinkedHashMap<>();
+        for (StartupTimeline.TimelineEvent evento : eventos) {
+            fases.computeIfAbsent(clave.apply(evento), Fase::new).sumar(evento.getDuration());
+        }
+        List<Fase> resultado = new ArrayList<>(fases.values());
+        resultado.sort(Comparator.comparing(Fase::getDuracion).reversed());
+        return resultado.subList(0, Math.min(maximo, resultado.size()));
+    }
+
+    private static String nombreBean(StartupTimeline.TimelineEvent evento) {
+        for (StartupStep.Tag etiqueta : evento.getStartupStep().getTags()) {
+            if (ETIQUETA_BEAN.equals(etiqueta.getKey())) {
+                return etiqueta.getValue();
+            }
+        }
+        return "?";
+    }
+
+    private static void escribir(StringBuilder informe, List<Fase> fases) {
+        for (Fase fase : fases) {
+            informe.append(System.lineSeparator()).append(String.format("  %8d ms  %5dx  %s",
+                    fase.getDuracion().toMillis(), fase.getVeces(), fase.getNombre()));
+        }
+    }
+
+    static final class Fase {
+
+        private final String nombre;
+        private Duration duracion = Duration.ZERO;
+        private int veces;
+
+        Fase(String nombre) {
+            this.nombre = nombre;
+        }
+
+        void sumar(Duration tiempo) {
+            duracion = duracion.plus(tiempo);
+            veces++;
+        }
+
+        String getNombre() {
+            return nombre;
+        }
+
+        Duration getDuracion() {
+            return duracion;
+        }
+
+        int getVeces() {
+            return veces;
+        }
+
+    }
+
+}
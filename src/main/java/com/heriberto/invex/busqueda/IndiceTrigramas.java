@@ -0,0 +1,320 @@
+package com.heriberto.invex.busqueda;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de trigramas para búsqueda aproximada de nombres.
+ * 
+ * Cada trigrama se codifica en un long (tres caracteres de 16 bits) y sus
+ * listas de documentos son arreglos ordenados de long, sin colecciones de
+ * objetos envueltos. El puntaje de un documento es la fracción de
+ * trigramas de la consulta que contiene, de modo que tolera nombres
+ * parciales y errores de escritura.
+ */
+public class IndiceTrigramas {
+
+    private static final long[] SIN_TRIGRAMAS = new long[0];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TablaLong<Postings> postings = new TablaLong<>();
+    private final TablaLong<long[]> documentos = new TablaLong<>();
+
+    /**
+     * Indexa (o reindexa) el texto de un documento.
+     */
+    public void indexar(long id, String texto) {
+        long[] trigramas = trigramas(texto);
+        lock.writeLock().lock();
+        try {
+            quitar(id);
+            if (trigramas.length == 0) {
+                return;
+            }
+            documentos.put(id, trigramas);
+            for (long trigrama : trigramas) {
+                Postings lista = postings.get(trigrama);
+                if (lista == null) {
+                    lista = new Postings();
+                    postings.put(trigrama, lista);
+                }
+                lista.agregar(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(long id) {
+        lock.writeLock().lock();
+        try {
+            quitar(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int getDocumentos() {
+        lock.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca los documentos más parecidos a la consulta.
+     * 
+     * @param consulta Texto a buscar.
+     * @param limite   Número máximo de resultados.
+     * @param umbral   Fracción mínima (0-1) de trigramas de la consulta que debe
+     *                 contener un documento.
+     * @return Los ids encontrados, del más al menos parecido.
+     */
+    public long[] buscar(String consulta, int limite, double umbral) {
+        long[] trigramas = trigramas(consulta);
+        if (trigramas.length == 0 || limite <= 0) {
+            return SIN_TRIGRAMAS;
+        }
+
+        Puntajes puntajes = new Puntajes();
+        lock.readLock().lock();
+        try {
+            for (long trigrama : trigramas) {
+                Postings lista = postings.get(trigrama);
+                if (lista != null) {
+                    for (int i = 0; i < lista.tamano; i++) {
+                        puntajes.incrementar(lista.ids[i]);
+                    }
+                }
+            }
+
+            // Candidatos que superan el umbral, ordenados por coincidencias y,
+            // en empate, por la similitud de Jaccard (prefiere nombres cortos)
+            int minimo = Math.max(1, (int) Math.ceil(umbral * trigramas.length));
+            long[] ids = new long[puntajes.tamano];
+            double[] rangos = new double[puntajes.tamano];
+            int candidatos = 0;
+            for (int i = 0; i < puntajes.claves.length; i++) {
+                int comunes = puntajes.valores[i];
+                if (comunes >= minimo) {
+                    long id = puntajes.claves[i];
+                    int trigramasDocumento = documentos.get(id).length;
+                    double jaccard = (double) comunes / (trigramas.length + trigramasDocumento - comunes);
+                    ids[candidatos] = id;
+                    rangos[candidatos] = comunes + jaccard;
+                    candidatos++;
+                }
+            }
+            return mejores(ids, rangos, candidatos, limite);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void quitar(long id) {
+        long[] anteriores = documentos.remove(id);
+        if (anteriores == null) {
+            return;
+        }
+        for (long trigrama : anteriores) {
+            Postings lista = postings.get(trigrama);
+            if (lista != null) {
+                lista.quitar(id);
+                if (lista.tamano == 0) {
+                    postings.remove(trigrama);
+                }
+            }
+        }
+    }
+
+    // Los "limite" mejores candidatos con un montículo de índices primitivos,
+    // O(n log k) sin envolver ni ordenar todos los candidatos
+    private static long[] mejores(long[] ids, double[] rangos, int candidatos, int limite) {
+        int k = Math.min(limite, candidatos);
+        // La raíz es el peor de los conservados
+        int[] monticulo = new int[k];
+        int tamano = 0;
+        for (int i = 0; i < candidatos; i++) {
+            if (tamano < k) {
+                monticulo[tamano] = i;
+                subir(monticulo, tamano++, ids, rangos);
+            } else if (antes(i, monticulo[0], ids, rangos)) {
+                monticulo[0] = i;
+                bajar(monticulo, tamano, ids, rangos);
+            }
+        }
+        // Se extrae del peor al mejor, llenando el resultado desde el final
+        long[] resultado = new long[tamano];
+        for (int j = tamano - 1; j >= 0; j--) {
+            resultado[j] = ids[monticulo[0]];
+            monticulo[0] = monticulo[j];
+            bajar(monticulo, j, ids, rangos);
+        }
+        return resultado;
+    }
+
+    // Más coincidencias primero y, en empate, el id menor
+    private static boolean antes(int a, int b, long[] ids, double[] rangos) {
+        int comparacion = Double.compare(rangos[a], rangos[b]);
+        return comparacion != 0 ? comparacion > 0 : ids[a] < ids[b];
+    }
+
+    private static void subir(int[] monticulo, int posicion, long[] ids, double[] rangos) {
+        while (posicion > 0) {
+            int padre = (posicion - 1) / 2;
+            if (!antes(monticulo[padre], monticulo[posicion], ids, rangos)) {
+                return;
+            }
+            intercambiar(monticulo, padre, posicion);
+            posicion = padre;
+        }
+    }
+
+    private static void bajar(int[] monticulo, int tamano, long[] ids, double[] rangos) {
+        int posicion = 0;
+        while (true) {
+            int peor = posicion;
+            for (int hijo = 2 * posicion + 1; hijo <= 2 * posicion + 2 && hijo < tamano; hijo++) {
+                if (antes(monticulo[peor], monticulo[hijo], ids, rangos)) {
+                    peor = hijo;
+                }
+            }
+            if (peor == posicion) {
+                return;
+            }
+            intercambiar(monticulo, posicion, peor);
+            posicion = peor;
+        }
+    }
+
+    private static void intercambiar(int[] monticulo, int a, int b) {
+        int temporal = monticulo[a];
+        monticulo[a] = monticulo[b];
+        monticulo[b] = temporal;
+    }
+
+    /**
+     * Trigramas distintos y ordenados del texto normalizado: minúsculas, sin
+     * acentos y cada palabra rellenada con dos espacios al inicio y uno al final.
+     */
+    static long[] trigramas(String texto) {
+        if (texto == null) {
+            return SIN_TRIGRAMAS;
+        }
+        String normalizado = Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase();
+
+        long[] resultado = new long[normalizado.length() * 3 + 3];
+        int cantidad = 0;
+        StringBuilder palabra = new StringBuilder();
+        for (int i = 0; i <= normalizado.length(); i++) {
+            char c = i < normalizado.length() ? normalizado.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                palabra.append(c);
+            } else if (palabra.length() > 0) {
+                String relleno = "  " + palabra + " ";
+                for (int j = 0; j + 3 <= relleno.length(); j++) {
+                    resultado[cantidad++] = ((long) relleno.charAt(j) << 32)
+                            | ((long) relleno.charAt(j + 1) << 16)
+                            | relleno.charAt(j + 2);
+                }
+                palabra.setLength(0);
+            }
+        }
+
+        Arrays.sort(resultado, 0, cantidad);
+        int distintos = 0;
+        for (int i = 0; i < cantidad; i++) {
+            if (distintos == 0 || resultado[distintos - 1] != resultado[i]) {
+                resultado[distintos++] = resultado[i];
+            }
+        }
+        return Arrays.copyOf(resultado, distintos);
+    }
+
+    // Lista de ids ordenada; los ids autoincrementales casi siempre se agregan al final
+    private static final class Postings {
+
+        private long[] ids = new long[4];
+        private int tamano;
+
+        void agregar(long id) {
+            int posicion = Arrays.binarySearch(ids, 0, tamano, id);
+            if (posicion >= 0) {
+                return;
+            }
+            posicion = -posicion - 1;
+            if (tamano == ids.length) {
+                ids = Arrays.copyOf(ids, tamano * 2);
+            }
+            System.arraycopy(ids, posicion, ids, posicion + 1, tamano - posicion);
+            ids[posicion] = id;
+            tamano++;
+        }
+
+        void quitar(long id) {
+            int posicion = Arrays.binarySearch(ids, 0, tamano, id);
+            if (posicion >= 0) {
+                System.arraycopy(ids, posicion + 1, ids, posicion, tamano - posicion - 1);
+                tamano--;
+            }
+        }
+
+    }
+
+    // Acumulador long -> int con direccionamiento abierto para los puntajes de una consulta
+    private static final class Puntajes {
+
+        private static final long VACIO = Long.MIN_VALUE;
+
+        private long[] claves = nuevasClaves(64);
+        private int[] valores = new int[64];
+        private int tamano;
+
+        void incrementar(long clave) {
+            if ((tamano + 1) * 2 > claves.length) {
+                crecer();
+            }
+            int mascara = claves.length - 1;
+            int i = TablaLong.dispersar(clave) & mascara;
+            while (claves[i] != VACIO && claves[i] != clave) {
+                i = (i + 1) & mascara;
+            }
+            if (claves[i] == VACIO) {
+                claves[i] = clave;
+                tamano++;
+            }
+            valores[i]++;
+        }
+
+        private void crecer() {
+            long[] viejasClaves = claves;
+            int[] viejosValores = valores;
+            claves = nuevasClaves(viejasClaves.length * 2);
+            valores = new int[viejasClaves.length * 2];
+            int mascara = claves.length - 1;
+            for (int j = 0; j < viejasClaves.length; j++) {
+                if (viejasClaves[j] != VACIO) {
+                    int i = TablaLong.dispersar(viejasClaves[j]) & mascara;
+                    while (claves[i] != VACIO) {
+                        i = (i + 1) & mascara;
+                    }
+                    claves[i] = viejasClaves[j];
+                    valores[i] = viejosValores[j];
+                }
+            }
+        }
+
+        private static long[] nuevasClaves(int capacidad) {
+            long[] claves = new long[capacidad];
+            Arrays.fill(claves, VACIO);
+            return claves;
+        }
+
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.heriberto.invex.busqueda;
+
+import java.util.Arrays;
+
+/**
+ * Tabla hash de claves long primitivas con direccionamiento abierto
+ * (sondeo lineal). No admite {@link Long#MIN_VALUE} como clave. No es segura
+ * para hilos: {@link IndiceTrigramas} la protege con su propio lock.
+ */
+final class TablaLong<V> {
+
+    private static final long VACIO = Long.MIN_VALUE;
+
+    private long[] claves;
+    private Object[] valores;
+    private int tamano;
+
+    TablaLong() {
+        claves = new long[16];
+        Arrays.fill(claves, VACIO);
+        valores = new Object[16];
+    }
+
+    static int dispersar(long clave) {
+        long h = clave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    int size() {
+        return tamano;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long clave) {
+        int i = buscar(clave);
+        return claves[i] == VACIO ? null : (V) valores[i];
+    }
+
+    void put(long clave, V valor) {
+        if ((tamano + 1) * 4 > claves.length * 3) {
+            redimensionar(claves.length * 2);
+        }
+        int i = buscar(clave);
+        if (claves[i] == VACIO) {
+            claves[i] = clave;
+            tamano++;
+        }
+        valores[i] = valor;
+    }
+
+    @SuppressWarnings("unchecked")
+    V remove(long clave) {
+        int i = buscar(clave);
+        if (claves[i] == VACIO) {
+            return null;
+        }
+        V anterior = (V) valores[i];
+        claves[i] = VACIO;
+        valores[i] = null;
+        tamano--;
+
+        // Reubicar las entradas siguientes del mismo grupo (borrado sin lápidas)
+        int mascara = claves.length - 1;
+        int j = (i + 1) & mascara;
+        while (claves[j] != VACIO) {
+            long clavePendiente = claves[j];
+            Object valorPendiente = valores[j];
+            claves[j] = VACIO;
+            valores[j] = null;
+            int destino = buscar(clavePendiente);
+            claves[destino] = clavePendiente;
+            valores[destino] = valorPendiente;
+            j = (j + 1) & mascara;
+        }
+        return anterior;
+    }
+
+    private int buscar(long clave) {
+        int mascara = claves.length - 1;
+        int i = dispersar(clave) & mascara;
+        while (claves[i] != VACIO && claves[i] != clave) {
+            i = (i + 1) & mascara;
+        }
+        return i;
+    }
+
+    private void redimensionar(int capacidad) {
+        long[] viejasClaves = claves;
+        Object[] viejosValores = valores;
+        claves = new long[capacidad];
+        Arrays.fill(claves, VACIO);
+        valores = new Object[capacidad];
+        for (int i = 0; i < viejasClaves.length; i++) {
+            if (viejasClaves[i] != VACIO) {
+                int destino = buscar(viejasClaves[i]);
+                claves[destino] = viejasClaves[i];
+                valores[destino] = viejosValores[i];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.heriberto.invex.catalogo;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caché en memoria de un catálogo (valor ↔ clave entera). Cada valor se guarda
+ * una sola vez y las entidades leídas comparten esa instancia, de modo que un
+ * listado no crea una cadena por fila.
+ * <p>
+ * El contenido se reemplaza completo en cada carga; las lecturas ven siempre
+ * una versión coherente sin bloquearse.
+ */
+public final class Catalogo {
+
+    private final String nombre;
+
+    private volatile Tablas tablas = new Tablas(false);
+
+    public Catalogo(String nombre) {
+        this.nombre = nombre;
+    }
+
+    // Reemplazar el contenido por las entradas leídas de la base de datos
+    public synchronized void cargar(Map<Integer, String> entradas) {
+        Tablas anteriores = tablas;
+        Tablas nuevas = new Tablas(true);
+        for (Map.Entry<Integer, String> entrada : entradas.entrySet()) {
+            // Se conserva la instancia ya compartida si el valor no cambió
+            String valor = anteriores.claves.containsKey(entrada.getValue())
+                    ? anteriores.valores.get(anteriores.claves.get(entrada.getValue()))
+                    : entrada.getValue();
+            nuevas.agregar(nombre, entrada.getKey(), valor);
+        }
+        tablas = nuevas;
+    }
+
+    public Integer clave(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        Integer clave = cargadas().claves.get(valor);
+        if (clave == null) {
+            throw new IllegalStateException("El " + nombre + " '" + valor + "' no está en el catálogo");
+        }
+        return clave;
+    }
+
+    public String valor(Integer clave) {
+        if (clave == null) {
+            return null;
+        }
+        String valor = cargadas().valores.get(clave);
+        if (valor == null) {
+            throw new IllegalStateException("Clave de " + nombre + " inexistente en el catálogo: " + clave);
+        }
+        return valor;
+    }
+
+    // Instancia compartida del valor, o null si no está en el catálogo
+    public String canonico(String valor) {
+        Tablas actuales = cargadas();
+        Integer clave = valor == null ? null : actuales.claves.get(valor);
+        return clave == null ? null : actuales.valores.get(clave);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public int tamano() {
+        return tablas.valores.size();
+    }
+
+    private Tablas cargadas() {
+        Tablas actuales = tablas;
+        if (!actuales.cargadas) {
+            throw new IllegalStateException("Catálogo de " + nombre + " no cargado");
+        }
+        return actuales;
+    }
+
+    // Ambos sentidos del catálogo; no se modifican una vez publicados
+    private static final class Tablas {
+
+        private final Map<String, Integer> claves;
+        private final Map<Integer, String> valores;
+        private final boolean cargadas;
+
+        Tablas(boolean cargadas) {
+            this.claves = new HashMap<>();
+            this.valores = new HashMap<>();
+            this.cargadas = cargadas;
+        }
+
+        // Una clave o un valor ya registrados con otra pareja indican un
+        // catálogo inconsistente
+        void agregar(String nombre, Integer clave, String valor) {
+            String actual = valores.get(clave);
+            Integer otraClave = claves.get(valor);
+            if ((actual != null && !actual.equals(valor)) || (otraClave != null && !otraClave.equals(clave))) {
+                throw new IllegalStateException("Entrada de " + nombre + " en conflicto: " + clave + " = '" + valor
+                        + "' (registrado: " + otraClave + " = '" + actual + "')");
+            }
+            if (actual == null) {
+                valores.put(clave, valor);
+                claves.put(valor, clave);
+            }
+        }
+
+    }
+
+}
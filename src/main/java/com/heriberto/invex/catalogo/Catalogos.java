@@ -0,0 +1,24 @@
+package com.heriberto.invex.catalogo;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Catálogos de puesto y sexo de la aplicación. No depende de la base de datos
+ * para que los convertidores de Hibernate puedan recibirlo al crearse; el
+ * servicio de catálogos se encarga de llenarlo.
+ */
+@Component
+public class Catalogos {
+
+    private final Catalogo puestos = new Catalogo("puesto");
+    private final Catalogo sexos = new Catalogo("sexo");
+
+    public Catalogo getPuestos() {
+        return puestos;
+    }
+
+    public Catalogo getSexos() {
+        return sexos;
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.heriberto.invex.catalogo;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+// El API trabaja con el texto; en la base de datos se guarda la clave del catálogo.
+// Hibernate lo crea a través de Spring, que inyecta los catálogos
+@Converter
+public class PuestoConverter implements AttributeConverter<String, Integer> {
+
+    private final Catalogo puestos;
+
+    public PuestoConverter(Catalogos catalogos) {
+        this.puestos = catalogos.getPuestos();
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String valor) {
+        return puestos.clave(valor);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer clave) {
+        return puestos.valor(clave);
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.heriberto.invex.catalogo;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+// El API trabaja con el texto; en la base de datos se guarda la clave del catálogo.
+// Hibernate lo crea a través de Spring, que inyecta los catálogos
+@Converter
+public class SexoConverter implements AttributeConverter<String, Integer> {
+
+    private final Catalogo sexos;
+
+    public SexoConverter(Catalogos catalogos) {
+        this.sexos = catalogos.getSexos();
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String valor) {
+        return sexos.clave(valor);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer clave) {
+        return sexos.valor(clave);
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.heriberto.invex.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.heriberto.invex.perfilado.GrabacionContinua;
+import com.heriberto.invex.services.ArchivoService;
+import com.heriberto.invex.services.CatalogoService;
+import com.heriberto.invex.services.EscrituraDiferidaService;
+import com.heriberto.invex.services.EstadisticasService;
+
+/**
+ * Beans que se crean al arrancar aunque el perfil {@code rapido} active
+ * {@code spring.main.lazy-initialization}.
+ * 
+ * Las tareas {@code @Scheduled} solo se registran al crear el bean, por lo que
+ * el archivado, el vaciado de la escritura diferida y la reconciliación del
+ * total no se ejecutarían nunca; los catálogos deben estar cargados antes de
+ * que Hibernate convierta la primera fila, y la grabación JFR continua debe
+ * cubrir también las primeras peticiones.
+ */
+@Configuration
+public class ArranqueConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter beansConTareasAlArrancar() {
+        return LazyInitializationExcludeFilter.forBeanTypes(ArchivoService.class, EscrituraDiferidaService.class,
+                EstadisticasService.class, CatalogoService.class, GrabacionContinua.class);
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.heriberto.invex.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import com.heriberto.invex.admision.ControlAdmisionInterceptor;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Modo opcional de hilos virtuales (Java 21+).
+ * 
+ * Tomcat atiende cada petición en un hilo virtual, de modo que las esperas de
+ * JDBC dejan de ocupar hilos de plataforma. La concurrencia hacia la base de
+ * datos queda acotada por los carriles de admisión, cuyos límites se reducen
+ * para caber en el pool de Hikari junto con las tareas programadas; si aun
+ * así lo superan no se arranca.
+ * Se activa con {@code invex.hilos-virtuales.habilitado=true} y requiere
+ * ejecutar con Java 21 o superior.
+ */
+@Configuration
+@ConditionalOnProperty(name = "invex.hilos-virtuales.habilitado", havingValue = "true")
+public class HilosVirtualesConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(HilosVirtualesConfig.class);
+
+    // No se publica el ExecutorService como bean: cualquier Executor en el
+    // contexto desactiva el ejecutor de tareas autoconfigurado de Spring
+    @Bean(destroyMethod = "cerrar")
+    public EjecutorTomcat hilosVirtualesTomcat() {
+        return new EjecutorTomcat(crearEjecutorVirtual());
+    }
+
+    // Sin el límite de hilos de Tomcat, solo los carriles impiden que las
+    // peticiones se acumulen esperando conexión en el pool. Los límites se
+    // acotan con la propiedad del pool; aquí se comprueba el pool real
+    @EventListener(ApplicationReadyEvent.class)
+    public void verificarPool(ApplicationReadyEvent evento) {
+        DataSource dataSource = evento.getApplicationContext().getBean(DataSource.class);
+        ControlAdmisionInterceptor admision = evento.getApplicationContext().getBean(ControlAdmisionInterceptor.class);
+        if (!(dataSource instanceof HikariDataSource)) {
+            return;
+        }
+        int pool = ((HikariDataSource) dataSource).getMaximumPoolSize();
+        int carriles = admision.getEscrituraMasiva().getLimite() + admision.getListado().getLimite()
+                + admision.getLecturaPuntual().getLimite() + admision.getStream().getLimite();
+        int programadas = admision.getConexionesProgramadas();
+        if (carriles + programadas > pool) {
+            throw new IllegalStateException("Hilos virtuales activos: los carriles admiten " + carriles
+                    + " peticiones simultáneas y las tareas programadas usan hasta " + programadas
+                    + " conexiones, pero el pool tiene " + pool);
+        }
+        logger.info("Hilos virtuales activos: {} peticiones simultáneas y {} tareas programadas sobre un pool de {} "
+                + "conexiones.", carriles, programadas, pool);
+    }
+
+    // Se obtiene por reflexión para que el proyecto siga compilando con Java 8
+    static ExecutorService crearEjecutorVirtual() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Los hilos virtuales requieren Java 21 o superior; versión actual: "
+                    + System.getProperty("java.version"), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo crear el ejecutor de hilos virtuales", e);
+        }
+    }
+
+    /**
+     * Ejecutor de hilos virtuales para los conectores de Tomcat. Se cierra al
+     * destruir el contexto, cuando el servidor ya dejó de aceptar peticiones.
+     */
+    public static class EjecutorTomcat implements TomcatProtocolHandlerCustomizer<ProtocolHandler> {
+
+        private final ExecutorService ejecutor;
+
+        public EjecutorTomcat(ExecutorService ejecutor) {
+            this.ejecutor = ejecutor;
+        }
+
+        @Override
+        public void customize(ProtocolHandler protocolHandler) {
+            protocolHandler.setExecutor(ejecutor);
+        }
+
+        public void cerrar() throws InterruptedException {
+            ejecutor.shutdown();
+            if (!ejecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("El ejecutor de hilos virtuales no terminó a tiempo; se interrumpen las tareas "
+                        + "pendientes.");
+                ejecutor.shutdownNow();
+            }
+        }
+
+        public ExecutorService getEjecutor() {
+            return ejecutor;
+        }
+
+    }
+
+}
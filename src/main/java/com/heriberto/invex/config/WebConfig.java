@@ -0,0 +1,65 @@
+package com.heriberto.invex.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.heriberto.invex.admision.ControlAdmisionInterceptor;
+
+/**
+ * Configuración de Spring MVC.
+ * 
+ * Además de JSON, los endpoints de empleados negocian Smile
+ * (application/x-jackson-smile) y CBOR (application/cbor) mediante las
+ * cabeceras Accept y Content-Type. Los convertidores se publican como beans:
+ * HttpMessageConverters de Spring Boot los coloca delante de los que registra
+ * por defecto para esos formatos, que de otro modo tendrían prioridad. Las
+ * peticiones a la API pasan por el control de admisión por carriles.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ControlAdmisionInterceptor controlAdmision;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(controlAdmision).addPathPatterns("/api/**");
+    }
+
+    // El Jackson2ObjectMapperBuilder de Spring Boot es prototype: cada
+    // convertidor recibe el suyo con la configuración spring.jackson.*
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(smileMapper(builder));
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(cborMapper(builder));
+    }
+
+    // Smile comparte nombres de propiedad y valores repetidos (puesto, sexo)
+    // dentro de un mismo documento, lo que reduce mucho el tamaño de las listas
+    static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return builder.factory(factory).build();
+    }
+
+    static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new CBORFactory()).build();
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.heriberto.invex.controllers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.heriberto.invex.entities.VolcadoJfrDTO;
+import com.heriberto.invex.perfilado.GrabacionContinua;
+
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    // Ausente si invex.jfr.habilitado=false
+    @Autowired(required = false)
+    private GrabacionContinua grabacionContinua;
+
+    // Los volcados escriben en disco y el endpoint queda fuera del control de
+    // admisión de /api: se activan de forma explícita solo donde se necesiten
+    @Value("${invex.jfr.volcados.habilitado:false}")
+    private boolean volcadosHabilitados;
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
+
+    /**
+     * Volcar a un archivo los últimos minutos de la grabación JFR continua para
+     * analizarlos fuera de línea.
+     * 
+     * @param minutos Los minutos a volcar.
+     * @return ResponseEntity con el archivo escrito y el estado HTTP CREATED (201),
+     *         o un estado HTTP NO_CONTENT (204) si no hay datos del intervalo,
+     *         o un estado HTTP BAD_REQUEST (400) si los minutos están fuera de rango,
+     *         o un estado HTTP NOT_FOUND (404) si los volcados no están habilitados,
+     *         o un estado HTTP SERVICE_UNAVAILABLE (503) si la grabación está desactivada,
+     *         o un estado HTTP de error en caso de excepción.
+     */
+    @PostMapping("/jfr/volcados")
+    public ResponseEntity<VolcadoJfrDTO> volcarJfr(
+            @RequestParam(value = "minutos", defaultValue = "5") int minutos) {
+        if (!volcadosHabilitados) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (grabacionContinua == null) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        try {
+            VolcadoJfrDTO volcado = grabacionContinua.volcar(minutos);
+            if (volcado == null) {
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            }
+            return new ResponseEntity<>(volcado, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Volcado JFR rechazado: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Error interno al volcar la grabación JFR", e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+}
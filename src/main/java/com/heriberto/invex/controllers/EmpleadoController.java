@@ -1,13 +1,18 @@
 package com.heriberto.invex.controllers;
 
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.ConstraintViolationException;
 import javax.validation.Valid;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,16 +20,35 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.heriberto.invex.entities.Empleado;
+import com.heriberto.invex.entities.EmpleadoCambiosDTO;
 import com.heriberto.invex.entities.EmpleadoDTO;
+import com.heriberto.invex.entities.EstadisticasDTO;
+import com.heriberto.invex.entities.MetricasIngestaDTO;
+import com.heriberto.invex.entities.ResultadoCargaDTO;
+import com.heriberto.invex.entities.ResultadoInsercionDTO;
+import com.heriberto.invex.entities.SnapshotDTO;
+import com.heriberto.invex.exceptions.DatabaseException;
 import com.heriberto.invex.exceptions.IdNotFound;
+import com.heriberto.invex.exceptions.InvalidCatalogValueException;
 import com.heriberto.invex.exceptions.InvalidDateFormatException;
-import com.heriberto.invex.exceptions.DatabaseException;
-import javax.validation.ConstraintViolationException;
+import com.heriberto.invex.idempotencia.AlmacenIdempotencia;
+import com.heriberto.invex.idempotencia.CuerpoPeticion;
+import com.heriberto.invex.idempotencia.HuellaCuerpoAdvice;
+import com.heriberto.invex.services.BusquedaService;
+import com.heriberto.invex.services.CargaMasivaService;
 import com.heriberto.invex.services.EmpleadoService;
+import com.heriberto.invex.services.EstadisticasService;
+import com.heriberto.invex.services.IngestaParalela;
+import com.heriberto.invex.services.SnapshotService;
+
+import reactor.core.publisher.Flux;
 
 @RestController
 @RequestMapping("/api/empleados")
@@ -32,36 +56,206 @@ public class EmpleadoController {
 
     @Autowired
     private EmpleadoService empleadoService;
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @Autowired
+    private EstadisticasService estadisticasService;
+
+    @Autowired
+    private BusquedaService busquedaService;
+
+    @Autowired
+    private CargaMasivaService cargaMasivaService;
+
+    @Autowired
+    private AlmacenIdempotencia almacenIdempotencia;
+
+    @Autowired
+    private IngestaParalela ingestaParalela;
+
     private static final Logger logger = LoggerFactory.getLogger(EmpleadoController.class);
 
+    // Cabecera Prefer (RFC 7240): return=minimal, y la extensión return=count
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RETURN_MINIMAL = "minimal";
+    private static final String RETURN_COUNT = "count";
+
+    // Total de empleados activos, sin recorrer la tabla
+    private static final String X_TOTAL_COUNT = "X-Total-Count";
+
     /**
      * Obtener todos los empleados.
      * 
+     * @param incluirArchivo Si es true, incluye también los empleados dados de
+     *                       baja y los archivados.
      * @return ResponseEntity con la lista de empleados y el estado HTTP OK (200),
      *         o un estado HTTP de error en caso de excepción.
      */
     @GetMapping
-    public ResponseEntity<List<Empleado>> obtenerEmpleados() {
+    public ResponseEntity<List<Empleado>> obtenerEmpleados(
+            @RequestParam(value = "incluirArchivo", defaultValue = "false") boolean incluirArchivo) {
         try {
-            List<Empleado> empleados = empleadoService.findAll();
+            List<Empleado> empleados = incluirArchivo ? empleadoService.findAllIncluyendoArchivo()
+                    : empleadoService.findAll();
             return new ResponseEntity<>(empleados, HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    /**
+     * Consultar el número de empleados activos sin descargar la lista.
+     * 
+     * @return ResponseEntity sin cuerpo con la cabecera X-Total-Count y el estado
+     *         HTTP OK (200),
+     *         o un estado HTTP de error en caso de excepción.
+     */
+    @RequestMapping(method = RequestMethod.HEAD)
+    public ResponseEntity<Void> consultarTotalEmpleados() {
+        try {
+            return ResponseEntity.ok()
+                    .header(X_TOTAL_COUNT, String.valueOf(estadisticasService.contarEmpleados()))
+                    .build();
+        } catch (Exception e) {
+            logger.error("Error interno al contar los empleados", e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Contar los empleados activos. El total se mantiene en memoria, por lo que
+     * la respuesta no depende del tamaño de la tabla.
+     * 
+     * @return ResponseEntity con el total, la cabecera X-Total-Count y el estado
+     *         HTTP OK (200),
+     *         o un estado HTTP de error en caso de excepción.
+     */
+    @GetMapping("/count")
+    public ResponseEntity<Long> contarEmpleados() {
+        try {
+            long total = estadisticasService.contarEmpleados();
+            return ResponseEntity.ok()
+                    .header(X_TOTAL_COUNT, String.valueOf(total))
+                    .body(total);
+        } catch (Exception e) {
+            logger.error("Error interno al contar los empleados", e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Obtener las métricas de la ingesta en paralelo de las inserciones: tiempo
+     * de conversión, de escritura y solapamiento conseguido entre ambas.
+     * 
+     * @return ResponseEntity con las métricas acumuladas y el estado HTTP OK (200).
+     */
+    @GetMapping("/ingesta/metricas")
+    public ResponseEntity<MetricasIngestaDTO> obtenerMetricasIngesta() {
+        return new ResponseEntity<>(ingestaParalela.getMetricas(), HttpStatus.OK);
+    }
+
+    /**
+     * Buscar empleados por nombre de forma aproximada (nombres parciales o con
+     * errores de escritura).
+     * 
+     * @param nombre El texto a buscar en nombres y apellidos.
+     * @param limite El número máximo de resultados.
+     * @return ResponseEntity con los empleados ordenados por parecido y el estado
+     *         HTTP OK (200),
+     *         o un estado HTTP BAD_REQUEST (400) si el nombre está vacío,
+     *         o un estado HTTP de error en caso de excepción.
+     */
+    @GetMapping("/buscar")
+    public ResponseEntity<List<Empleado>> buscarEmpleados(
+            @RequestParam("nombre") String nombre,
+            @RequestParam(value = "limite", defaultValue = "20") int limite) {
+        try {
+            List<Empleado> empleados = busquedaService.buscarPorNombre(nombre, limite);
+            return new ResponseEntity<>(empleados, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Búsqueda de empleados sin nombre");
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Error interno al buscar empleados por nombre: {}", nombre, e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Obtener las estadísticas de la plantilla: total, empleados por puesto, por
+     * sexo y por rango de edad.
+     * 
+     * @return ResponseEntity con las estadísticas y el estado HTTP OK (200),
+     *         o un estado HTTP de error en caso de excepción.
+     */
+    @GetMapping("/estadisticas")
+    public ResponseEntity<EstadisticasDTO> obtenerEstadisticas() {
+        try {
+            EstadisticasDTO estadisticas = estadisticasService.obtenerEstadisticas();
+            return new ResponseEntity<>(estadisticas, HttpStatus.OK);
+        } catch (Exception e) {
+            logger.error("Error interno al obtener las estadísticas de empleados", e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Obtener los cambios de empleados posteriores a un token de sincronización.
+     * 
+     * @param since El token devuelto por la sincronización anterior; si se omite
+     *              se devuelven todos los empleados.
+     * @return ResponseEntity con los empleados modificados, los ids eliminados y
+     *         el nuevo token, con el estado HTTP OK (200),
+     *         o un estado HTTP BAD_REQUEST (400) si el token es inválido,
+     *         o un estado HTTP de error en caso de excepción.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<EmpleadoCambiosDTO> obtenerCambios(
+            @RequestParam(value = "since", required = false) String since) {
+        try {
+            EmpleadoCambiosDTO cambios = empleadoService.obtenerCambios(since);
+            return new ResponseEntity<>(cambios, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            logger.error("Token de sincronización inválido: {}", since);
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Error interno al obtener los cambios desde: {}", since, e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Recorrer todos los empleados en streaming (NDJSON o Server-Sent Events).
+     * Los empleados se leen de la base de datos por páginas a medida que el
+     * cliente los consume.
+     * 
+     * @return Flux con los empleados ordenados por id.
+     */
+    @GetMapping(value = "/stream", produces = { MediaType.APPLICATION_NDJSON_VALUE,
+            MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<Empleado> streamEmpleados() {
+        return empleadoService.streamEmpleados();
+    }
+
     /**
      * Obtener un empleado por su ID.
      * 
-     * @param id El ID del empleado a buscar.
+     * @param id             El ID del empleado a buscar.
+     * @param incluirArchivo Si es true, busca también entre los empleados dados
+     *                       de baja y los archivados.
      * @return ResponseEntity con el empleado encontrado y el estado HTTP OK (200),
      *         o un estado HTTP NOT_FOUND (404) si no se encuentra el empleado,
      *         o un estado HTTP de error en caso de excepción.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Empleado> obtenerEmpleadoPorId(@PathVariable("id") Long id) {
+    public ResponseEntity<Empleado> obtenerEmpleadoPorId(@PathVariable("id") Long id,
+            @RequestParam(value = "incluirArchivo", defaultValue = "false") boolean incluirArchivo) {
         try {
-            Empleado empleado = empleadoService.findById(id);
+            Empleado empleado = incluirArchivo ? empleadoService.findByIdIncluyendoArchivo(id)
+                    : empleadoService.findById(id);
             return new ResponseEntity<>(empleado, HttpStatus.OK);
         } catch (IdNotFound e) {
             logger.error("Empleado no encontrado con id: {}", id);
@@ -101,18 +295,27 @@ public class EmpleadoController {
      * 
      * @param id                El ID del empleado a actualizar.
      * @param empleadoUpdateDTO Los datos del empleado actualizados.
+     * @param prefer            Cabecera Prefer opcional; con return=minimal no se
+     *                          devuelve el empleado.
      * @return ResponseEntity con el empleado actualizado y el estado HTTP OK (200),
+     *         o el estado HTTP NO_CONTENT (204) con return=minimal,
+     *         o un estado HTTP BAD_REQUEST (400) si la fecha es inválida o el
+     *         puesto o el sexo no existen en su catálogo,
      *         o un estado HTTP NOT_FOUND (404) si no se encuentra el empleado,
      *         o un estado HTTP de error en caso de excepción.
      */
     @PutMapping("/{id}")
     public ResponseEntity<Empleado> actualizarEmpleado(
             @PathVariable("id") Long id,
-            @RequestBody EmpleadoDTO empleadoUpdateDTO) {
+            @RequestBody EmpleadoDTO empleadoUpdateDTO,
+            @RequestHeader(value = PREFER, required = false) String prefer) {
         try {
             Empleado empleadoActualizado = empleadoService.actualizarEmpleado(id, empleadoUpdateDTO);
+            if (RETURN_MINIMAL.equals(preferenciaReturn(prefer))) {
+                return ResponseEntity.noContent().header(PREFERENCE_APPLIED, "return=" + RETURN_MINIMAL).build();
+            }
             return new ResponseEntity<>(empleadoActualizado, HttpStatus.OK);
-        } catch (InvalidDateFormatException e) {
+        } catch (InvalidDateFormatException | InvalidCatalogValueException e) {
             logger.error("Body error", e);
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         } catch (IdNotFound e) {
@@ -127,14 +330,51 @@ public class EmpleadoController {
     /**
      * Insertar uno o varios empleados.
      * 
-     * @param empleados La lista de empleados a insertar.
-     * @return ResponseEntity con la lista de empleados guardados y el estado HTTP
-     *         CREATED (201) si la inserción fue exitosa,
+     * @param empleados         La lista de empleados a insertar.
+     * @param claveIdempotencia Clave opcional (cabecera Idempotency-Key); un
+     *                          reintento con la misma clave, el mismo cuerpo y
+     *                          la misma preferencia return recibe la respuesta
+     *                          de la primera ejecución sin volver a insertar (la
+     *                          lista de empleados se repite como return=minimal).
+     * @param prefer            Cabecera Prefer opcional: return=minimal devuelve
+     *                          solo el total y los ids generados (rango o
+     *                          arreglo) y return=count solo el total.
+     * @return ResponseEntity con la lista de empleados guardados (o el resultado
+     *         mínimo) y el estado HTTP CREATED (201) si la inserción fue exitosa,
      *         o un estado HTTP BAD_REQUEST (400) si los datos son inválidos,
+     *         o un estado HTTP CONFLICT (409) si la petición original sigue en curso,
+     *         o un estado HTTP UNPROCESSABLE_ENTITY (422) si la clave ya se usó
+     *         con otro cuerpo,
      *         o un estado HTTP de error en caso de excepción.
      */
     @PostMapping
-    public ResponseEntity<List<Empleado>> insertarEmpleados(@RequestBody @Valid List<EmpleadoDTO> empleadosDTO) {
+    public ResponseEntity<Object> insertarEmpleados(@RequestBody @Valid List<EmpleadoDTO> empleadosDTO,
+            @RequestHeader(value = AlmacenIdempotencia.CABECERA_CLAVE, required = false) String claveIdempotencia,
+            @RequestHeader(value = PREFER, required = false) String prefer, HttpServletRequest request) {
+        String retorno = preferenciaReturn(prefer);
+        String representacion = retorno == null ? "representation" : retorno;
+        // La huella de los bytes recibidos la calcula HuellaCuerpoAdvice al leer el cuerpo
+        return idempotente("POST /api/empleados return=" + representacion, claveIdempotencia,
+                () -> (String) request.getAttribute(HuellaCuerpoAdvice.ATRIBUTO_HUELLA),
+                () -> insertar(empleadosDTO, retorno),
+                EmpleadoController::compactarInsercion);
+    }
+
+    // Para las repeticiones basta con los ids generados
+    private static ResponseEntity<?> compactarInsercion(ResponseEntity<Object> respuesta) {
+        if (!(respuesta.getBody() instanceof List)) {
+            return respuesta;
+        }
+        List<?> empleados = (List<?>) respuesta.getBody();
+        long[] ids = new long[empleados.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = ((Empleado) empleados.get(i)).getId();
+        }
+        return ResponseEntity.status(respuesta.getStatusCode()).header(PREFERENCE_APPLIED, "return=" + RETURN_MINIMAL)
+                .body(ResultadoInsercionDTO.deIds(ids));
+    }
+
+    private ResponseEntity<Object> insertar(List<EmpleadoDTO> empleadosDTO, String retorno) {
         try {
             // Validar que la lista de empleados no esté vacía
             if (empleadosDTO == null || empleadosDTO.isEmpty()) {
@@ -142,12 +382,21 @@ public class EmpleadoController {
                 return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // Respuesta 400 si la lista está vacía o nula
             }
 
+            // Respuesta mínima: el servicio no conserva la lista de entidades
+            if (RETURN_MINIMAL.equals(retorno) || RETURN_COUNT.equals(retorno)) {
+                ResultadoInsercionDTO resultado = empleadoService.insertarEmpleadosMinimo(empleadosDTO,
+                        RETURN_MINIMAL.equals(retorno));
+                return ResponseEntity.status(HttpStatus.CREATED).header(PREFERENCE_APPLIED, "return=" + retorno)
+                        .body(resultado);
+            }
+
             // Llamar al servicio para insertar empleados
             List<Empleado> empleadosGuardados = empleadoService.insertarEmpleados(empleadosDTO);
 
             return new ResponseEntity<>(empleadosGuardados, HttpStatus.CREATED); // 201 Created si la inserción fue
                                                                                  // exitosa
-        } catch (IllegalArgumentException | DatabaseException | InvalidDateFormatException | ConstraintViolationException e) {
+        } catch (IllegalArgumentException | DatabaseException | InvalidDateFormatException | InvalidCatalogValueException
+                | ConstraintViolationException e) {
             // Si ocurre un error por datos no válidos
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // 400 Bad Request si hay algún argumento no válido
         } catch (Exception e) {
@@ -157,4 +406,118 @@ public class EmpleadoController {
         }
     }
 
+    /**
+     * Insertar empleados leyendo el arreglo JSON del cuerpo en flujo, sin
+     * construir la lista completa en memoria. Los empleados se validan uno a uno
+     * y se guardan por lotes.
+     * 
+     * @param request           La petición cuyo cuerpo es un arreglo JSON de
+     *                          empleados.
+     * @param claveIdempotencia Clave opcional (cabecera Idempotency-Key); si ya
+     *                          se usó con otro cuerpo se responde 422.
+     * @return ResponseEntity con el número de empleados insertados y el estado
+     *         HTTP CREATED (201) si la inserción fue exitosa,
+     *         o un estado HTTP BAD_REQUEST (400) si los datos son inválidos,
+     *         o un estado HTTP de error en caso de excepción.
+     */
+    @PostMapping(value = "/stream", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResultadoCargaDTO> insertarEmpleadosEnFlujo(HttpServletRequest request,
+            @RequestHeader(value = AlmacenIdempotencia.CABECERA_CLAVE, required = false) String claveIdempotencia) {
+        CuerpoPeticion cuerpo = new CuerpoPeticion(request, claveIdempotencia != null);
+        return idempotente("POST /api/empleados/stream", claveIdempotencia, cuerpo::huella,
+                () -> cargarEnFlujo(cuerpo), respuesta -> respuesta);
+    }
+
+    private ResponseEntity<ResultadoCargaDTO> cargarEnFlujo(CuerpoPeticion cuerpo) {
+        try {
+            ResultadoCargaDTO resultado = cargaMasivaService.cargarJson(cuerpo.abrir());
+            return new ResponseEntity<>(resultado, HttpStatus.CREATED);
+        } catch (IllegalArgumentException | InvalidDateFormatException | InvalidCatalogValueException
+                | ConstraintViolationException e) {
+            logger.warn("Carga en flujo rechazada: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Error interno en la carga de empleados en flujo", e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Insertar empleados desde un archivo CSV (RFC 4180, UTF-8) usando el
+     * cargador nativo de la base de datos. Las columnas esperadas son
+     * primer_nombre, segundo_nombre, apellido_paterno, apellido_materno, edad,
+     * sexo, fecha_nacimiento (dd-MM-yyyy) y puesto; la cabecera es opcional.
+     * Las líneas inválidas se rechazan sin detener la carga.
+     * 
+     * @param request           La petición cuyo cuerpo es el archivo CSV.
+     * @param claveIdempotencia Clave opcional (cabecera Idempotency-Key); si ya
+     *                          se usó con otro cuerpo se responde 422.
+     * @return ResponseEntity con los insertados, las líneas rechazadas y las
+     *         filas por segundo y el estado HTTP CREATED (201),
+     *         o un estado HTTP BAD_REQUEST (400) si el archivo no contiene filas,
+     *         o un estado HTTP de error en caso de excepción.
+     */
+    @PostMapping(value = "/csv", consumes = "text/csv")
+    public ResponseEntity<ResultadoCargaDTO> insertarEmpleadosCsv(HttpServletRequest request,
+            @RequestHeader(value = AlmacenIdempotencia.CABECERA_CLAVE, required = false) String claveIdempotencia) {
+        CuerpoPeticion cuerpo = new CuerpoPeticion(request, claveIdempotencia != null);
+        return idempotente("POST /api/empleados/csv", claveIdempotencia, cuerpo::huella, () -> cargarCsv(cuerpo),
+                respuesta -> respuesta);
+    }
+
+    private ResponseEntity<ResultadoCargaDTO> cargarCsv(CuerpoPeticion cuerpo) {
+        try {
+            ResultadoCargaDTO resultado = cargaMasivaService.cargarCsv(cuerpo.abrir());
+            return new ResponseEntity<>(resultado, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Carga CSV rechazada: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Error interno en la carga CSV de empleados", e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Exportar la tabla de empleados a un snapshot columnar para análisis
+     * fuera de línea.
+     * 
+     * @return ResponseEntity con la ruta, filas y tamaño del archivo generado y
+     *         el estado HTTP CREATED (201),
+     *         o un estado HTTP de error en caso de excepción.
+     */
+    @PostMapping("/snapshot")
+    public ResponseEntity<SnapshotDTO> exportarSnapshot() {
+        try {
+            SnapshotDTO snapshot = snapshotService.exportarSnapshot();
+            return new ResponseEntity<>(snapshot, HttpStatus.CREATED);
+        } catch (Exception e) {
+            logger.error("Error interno al exportar el snapshot de empleados", e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Sin clave se ejecuta siempre; con clave, una sola vez por endpoint y clave
+    private <T> ResponseEntity<T> idempotente(String endpoint, String clave, Supplier<String> huella,
+            Supplier<ResponseEntity<T>> operacion, Function<ResponseEntity<T>, ResponseEntity<?>> compactar) {
+        if (clave == null || clave.trim().isEmpty()) {
+            return operacion.get();
+        }
+        return almacenIdempotencia.ejecutar(endpoint + " " + clave.trim(), huella, operacion, compactar);
+    }
+
+    // Valor de la preferencia "return" de la cabecera Prefer, o null si no viene
+    private static String preferenciaReturn(String prefer) {
+        if (prefer == null) {
+            return null;
+        }
+        for (String preferencia : prefer.split(",")) {
+            String[] partes = preferencia.split(";")[0].split("=", 2);
+            if (partes.length == 2 && "return".equalsIgnoreCase(partes[0].trim())) {
+                return partes[1].trim().replace("\"", "").toLowerCase();
+            }
+        }
+        return null;
+    }
+
 }
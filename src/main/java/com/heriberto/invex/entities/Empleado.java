@@ -1,17 +1,35 @@
 package com.heriberto.invex.entities;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 
+import org.hibernate.annotations.Where;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.heriberto.invex.catalogo.PuestoConverter;
+import com.heriberto.invex.catalogo.SexoConverter;
+
+// Orden fijo de propiedades: es el esquema compartido por JSON, Smile y CBOR
+@JsonPropertyOrder({ "id", "primer_nombre", "segundo_nombre", "apellido_paterno", "apellido_materno", "edad",
+        "sexo", "fecha_nacimiento", "puesto", "created_at", "updated_at", "fecha_baja" })
 @Entity
-@Table(name = "empleado")
+@Table(name = "empleado", indexes = { @Index(name = "idx_empleado_updated_at", columnList = "updatedAt"),
+        @Index(name = "idx_empleado_fecha_baja", columnList = "fechaBaja") })
+// Las consultas JPA solo ven empleados activos; las bajas pasan por lotes a
+// empleado_archivo y se consultan de forma explícita
+@Where(clause = "fecha_baja IS NULL")
 public class Empleado {
 
     @Id
@@ -37,22 +55,44 @@ public class Empleado {
     @Column(name = "edad")
     private Integer edad;
 
+    // Clave del catálogo sexo; el API sigue usando el texto
     @NotNull(message = "El sexo es obligatorio")
-    @Column(name = "sexo", length = 1)
+    @Convert(converter = SexoConverter.class)
+    @Column(name = "sexoId")
     private String sexo;
 
     @NotNull(message = "La fecha de nacimiento es obligatoria")
     @Column(name = "fechaNacimiento")
     private LocalDate fecha_nacimiento;
 
+    // Clave del catálogo puesto; el API sigue usando el texto
     @NotNull(message = "El puesto es obligatorio")
-    @Column(name = "puesto", length = 15)
+    @Convert(converter = PuestoConverter.class)
+    @Column(name = "puestoId")
     private String puesto;
 
+    @Column(name = "createdAt", updatable = false)
+    private LocalDateTime created_at;
+
+    @Column(name = "updatedAt")
+    private LocalDateTime updated_at;
+
+    @Column(name = "fechaBaja")
+    private LocalDateTime fecha_baja;
+
     public Empleado() {
 
     }
 
+    // Copia de todos los campos, usada para conservar el estado previo a una modificación
+    public Empleado(Empleado otro) {
+        this(otro.id, otro.primer_nombre, otro.segundo_nombre, otro.apellido_paterno, otro.apellido_materno,
+                otro.edad, otro.sexo, otro.fecha_nacimiento, otro.puesto);
+        this.created_at = otro.created_at;
+        this.updated_at = otro.updated_at;
+        this.fecha_baja = otro.fecha_baja;
+    }
+
     public Empleado(Long id, @NotNull(message = "El primer nombre es obligatorio") String primer_nombre,
             String segundo_nombre, @NotNull(message = "El apellido paterno es obligatorio") String apellido_paterno,
             @NotNull(message = "El apellido materno es obligatorio") String apellido_materno,
@@ -143,4 +183,42 @@ public class Empleado {
         this.puesto = puesto;
     }
 
+    public LocalDateTime getCreated_at() {
+        return created_at;
+    }
+
+    public void setCreated_at(LocalDateTime created_at) {
+        this.created_at = created_at;
+    }
+
+    public LocalDateTime getUpdated_at() {
+        return updated_at;
+    }
+
+    public void setUpdated_at(LocalDateTime updated_at) {
+        this.updated_at = updated_at;
+    }
+
+    public LocalDateTime getFecha_baja() {
+        return fecha_baja;
+    }
+
+    public void setFecha_baja(LocalDateTime fecha_baja) {
+        this.fecha_baja = fecha_baja;
+    }
+
+    // Registrar las marcas de tiempo al insertar
+    @PrePersist
+    protected void alInsertar() {
+        LocalDateTime ahora = LocalDateTime.now();
+        this.created_at = ahora;
+        this.updated_at = ahora;
+    }
+
+    // Actualizar la marca de modificación en cada cambio
+    @PreUpdate
+    protected void alActualizar() {
+        this.updated_at = LocalDateTime.now();
+    }
+
 }
@@ -0,0 +1,51 @@
+package com.heriberto.invex.entities;
+
+import java.util.List;
+
+/**
+ * Respuesta de la sincronización incremental: empleados creados o modificados,
+ * ids eliminados y el token a usar en la siguiente consulta.
+ */
+public class EmpleadoCambiosDTO {
+
+    private List<Empleado> modificados;
+
+    private List<Long> eliminados;
+
+    private String token;
+
+    public EmpleadoCambiosDTO() {
+
+    }
+
+    public EmpleadoCambiosDTO(List<Empleado> modificados, List<Long> eliminados, String token) {
+        this.modificados = modificados;
+        this.eliminados = eliminados;
+        this.token = token;
+    }
+
+    public List<Empleado> getModificados() {
+        return modificados;
+    }
+
+    public void setModificados(List<Empleado> modificados) {
+        this.modificados = modificados;
+    }
+
+    public List<Long> getEliminados() {
+        return eliminados;
+    }
+
+    public void setEliminados(List<Long> eliminados) {
+        this.eliminados = eliminados;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+}
@@ -1,5 +1,10 @@
 package com.heriberto.invex.entities;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+// Orden fijo de propiedades: es el esquema compartido por JSON, Smile y CBOR
+@JsonPropertyOrder({ "primer_nombre", "segundo_nombre", "apellido_paterno", "apellido_materno", "edad", "sexo",
+        "fecha_nacimiento", "puesto" })
 public class EmpleadoDTO {
 
     private String primer_nombre;
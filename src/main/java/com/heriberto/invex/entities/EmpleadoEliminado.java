@@ -0,0 +1,64 @@
+package com.heriberto.invex.entities;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * Marca de borrado (tombstone) de un empleado, usada por la sincronización
+ * incremental para informar a los clientes de los registros eliminados.
+ */
+@Entity
+@Table(name = "empleado_eliminado", indexes = @Index(name = "idx_empleado_eliminado_deleted_at", columnList = "deletedAt"))
+public class EmpleadoEliminado {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "empleadoId", nullable = false)
+    private Long empleado_id;
+
+    @Column(name = "deletedAt", nullable = false)
+    private LocalDateTime deleted_at;
+
+    public EmpleadoEliminado() {
+
+    }
+
+    public EmpleadoEliminado(Long empleado_id, LocalDateTime deleted_at) {
+        this.empleado_id = empleado_id;
+        this.deleted_at = deleted_at;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getEmpleado_id() {
+        return empleado_id;
+    }
+
+    public void setEmpleado_id(Long empleado_id) {
+        this.empleado_id = empleado_id;
+    }
+
+    public LocalDateTime getDeleted_at() {
+        return deleted_at;
+    }
+
+    public void setDeleted_at(LocalDateTime deleted_at) {
+        this.deleted_at = deleted_at;
+    }
+
+}
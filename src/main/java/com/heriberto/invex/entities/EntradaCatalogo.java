@@ -0,0 +1,47 @@
+package com.heriberto.invex.entities;
+
+import javax.persistence.Column;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.MappedSuperclass;
+
+/**
+ * Valor de un catálogo (puesto, sexo) referenciado desde empleado por una
+ * clave entera.
+ */
+@MappedSuperclass
+public abstract class EntradaCatalogo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "nombre", length = 15, nullable = false, unique = true)
+    private String nombre;
+
+    protected EntradaCatalogo() {
+
+    }
+
+    protected EntradaCatalogo(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.heriberto.invex.entities;
+
+import java.util.Map;
+
+/**
+ * Estadísticas agregadas de la plantilla de empleados.
+ */
+public class EstadisticasDTO {
+
+    private long total;
+
+    private Map<String, Long> porPuesto;
+
+    private Map<String, Long> porSexo;
+
+    private Map<String, Long> porRangoEdad;
+
+    public EstadisticasDTO() {
+
+    }
+
+    public EstadisticasDTO(long total, Map<String, Long> porPuesto, Map<String, Long> porSexo,
+            Map<String, Long> porRangoEdad) {
+        this.total = total;
+        this.porPuesto = porPuesto;
+        this.porSexo = porSexo;
+        this.porRangoEdad = porRangoEdad;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<String, Long> getPorPuesto() {
+        return porPuesto;
+    }
+
+    public void setPorPuesto(Map<String, Long> porPuesto) {
+        this.porPuesto = porPuesto;
+    }
+
+    public Map<String, Long> getPorSexo() {
+        return porSexo;
+    }
+
+    public void setPorSexo(Map<String, Long> porSexo) {
+        this.porSexo = porSexo;
+    }
+
+    public Map<String, Long> getPorRangoEdad() {
+        return porRangoEdad;
+    }
+
+    public void setPorRangoEdad(Map<String, Long> porRangoEdad) {
+        this.porRangoEdad = porRangoEdad;
+    }
+
+}
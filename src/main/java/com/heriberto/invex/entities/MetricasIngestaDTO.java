@@ -0,0 +1,97 @@
+package com.heriberto.invex.entities;
+
+/**
+ * Métricas acumuladas de la ingesta en paralelo de inserciones masivas.
+ * El solapamiento es la fracción de la etapa más corta (conversión o
+ * escritura) que quedó oculta tras la otra: 0 es secuencial, 1 es total.
+ */
+public class MetricasIngestaDTO {
+
+    private int paralelismo;
+
+    private long ejecuciones;
+
+    private long filas;
+
+    private long milisegundosConversion;
+
+    private long milisegundosEscritura;
+
+    private long milisegundosTotal;
+
+    private double solapamiento;
+
+    public MetricasIngestaDTO() {
+
+    }
+
+    public MetricasIngestaDTO(int paralelismo, long ejecuciones, long filas, long milisegundosConversion,
+            long milisegundosEscritura, long milisegundosTotal) {
+        this.paralelismo = paralelismo;
+        this.ejecuciones = ejecuciones;
+        this.filas = filas;
+        this.milisegundosConversion = milisegundosConversion;
+        this.milisegundosEscritura = milisegundosEscritura;
+        this.milisegundosTotal = milisegundosTotal;
+        long menor = Math.min(milisegundosConversion, milisegundosEscritura);
+        long oculto = milisegundosConversion + milisegundosEscritura - milisegundosTotal;
+        this.solapamiento = menor > 0 ? Math.max(0, Math.min(1, (double) oculto / menor)) : 0;
+    }
+
+    public int getParalelismo() {
+        return paralelismo;
+    }
+
+    public void setParalelismo(int paralelismo) {
+        this.paralelismo = paralelismo;
+    }
+
+    public long getEjecuciones() {
+        return ejecuciones;
+    }
+
+    public void setEjecuciones(long ejecuciones) {
+        this.ejecuciones = ejecuciones;
+    }
+
+    public long getFilas() {
+        return filas;
+    }
+
+    public void setFilas(long filas) {
+        this.filas = filas;
+    }
+
+    public long getMilisegundosConversion() {
+        return milisegundosConversion;
+    }
+
+    public void setMilisegundosConversion(long milisegundosConversion) {
+        this.milisegundosConversion = milisegundosConversion;
+    }
+
+    public long getMilisegundosEscritura() {
+        return milisegundosEscritura;
+    }
+
+    public void setMilisegundosEscritura(long milisegundosEscritura) {
+        this.milisegundosEscritura = milisegundosEscritura;
+    }
+
+    public long getMilisegundosTotal() {
+        return milisegundosTotal;
+    }
+
+    public void setMilisegundosTotal(long milisegundosTotal) {
+        this.milisegundosTotal = milisegundosTotal;
+    }
+
+    public double getSolapamiento() {
+        return solapamiento;
+    }
+
+    public void setSolapamiento(double solapamiento) {
+        this.solapamiento = solapamiento;
+    }
+
+}
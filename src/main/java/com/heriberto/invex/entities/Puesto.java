@@ -0,0 +1,18 @@
+package com.heriberto.invex.entities;
+
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "puesto")
+public class Puesto extends EntradaCatalogo {
+
+    public Puesto() {
+
+    }
+
+    public Puesto(String nombre) {
+        super(nombre);
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.heriberto.invex.entities;
+
+import java.util.List;
+
+/**
+ * Resultado de una carga masiva de empleados.
+ */
+public class ResultadoCargaDTO {
+
+    private long insertados;
+
+    private long rechazados;
+
+    private long milisegundos;
+
+    private long filasPorSegundo;
+
+    private List<String> errores;
+
+    public ResultadoCargaDTO() {
+
+    }
+
+    public ResultadoCargaDTO(long insertados, long rechazados, long milisegundos, List<String> errores) {
+        this.insertados = insertados;
+        this.rechazados = rechazados;
+        this.milisegundos = milisegundos;
+        this.filasPorSegundo = milisegundos > 0 ? insertados * 1000 / milisegundos : insertados;
+        this.errores = errores;
+    }
+
+    public long getInsertados() {
+        return insertados;
+    }
+
+    public void setInsertados(long insertados) {
+        this.insertados = insertados;
+    }
+
+    public long getRechazados() {
+        return rechazados;
+    }
+
+    public void setRechazados(long rechazados) {
+        this.rechazados = rechazados;
+    }
+
+    public long getMilisegundos() {
+        return milisegundos;
+    }
+
+    public void setMilisegundos(long milisegundos) {
+        this.milisegundos = milisegundos;
+    }
+
+    public long getFilasPorSegundo() {
+        return filasPorSegundo;
+    }
+
+    public void setFilasPorSegundo(long filasPorSegundo) {
+        this.filasPorSegundo = filasPorSegundo;
+    }
+
+    public List<String> getErrores() {
+        return errores;
+    }
+
+    public void setErrores(List<String> errores) {
+        this.errores = errores;
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.heriberto.invex.entities;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Respuesta mínima de una inserción: el total y los ids generados, como rango
+ * (idDesde-idHasta) cuando son consecutivos o como arreglo en otro caso.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResultadoInsercionDTO {
+
+    private long total;
+
+    private Long idDesde;
+
+    private Long idHasta;
+
+    private long[] ids;
+
+    public ResultadoInsercionDTO() {
+
+    }
+
+    // Solo el número de filas insertadas
+    public static ResultadoInsercionDTO deTotal(long total) {
+        ResultadoInsercionDTO resultado = new ResultadoInsercionDTO();
+        resultado.total = total;
+        return resultado;
+    }
+
+    public static ResultadoInsercionDTO deIds(long[] ids) {
+        ResultadoInsercionDTO resultado = deTotal(ids.length);
+        if (ids.length > 0 && consecutivos(ids)) {
+            resultado.idDesde = ids[0];
+            resultado.idHasta = ids[ids.length - 1];
+        } else {
+            resultado.ids = ids;
+        }
+        return resultado;
+    }
+
+    private static boolean consecutivos(long[] ids) {
+        for (int i = 1; i < ids.length; i++) {
+            if (ids[i] != ids[i - 1] + 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Long getIdDesde() {
+        return idDesde;
+    }
+
+    public void setIdDesde(Long idDesde) {
+        this.idDesde = idDesde;
+    }
+
+    public Long getIdHasta() {
+        return idHasta;
+    }
+
+    public void setIdHasta(Long idHasta) {
+        this.idHasta = idHasta;
+    }
+
+    public long[] getIds() {
+        return ids;
+    }
+
+    public void setIds(long[] ids) {
+        this.ids = ids;
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.heriberto.invex.entities;
+
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "sexo")
+public class Sexo extends EntradaCatalogo {
+
+    public Sexo() {
+
+    }
+
+    public Sexo(String nombre) {
+        super(nombre);
+    }
+
+}
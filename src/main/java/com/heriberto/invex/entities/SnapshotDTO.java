@@ -0,0 +1,48 @@
+package com.heriberto.invex.entities;
+
+/**
+ * Resultado de la exportación de un snapshot columnar de empleados.
+ */
+public class SnapshotDTO {
+
+    private String archivo;
+
+    private int filas;
+
+    private long bytes;
+
+    public SnapshotDTO() {
+
+    }
+
+    public SnapshotDTO(String archivo, int filas, long bytes) {
+        this.archivo = archivo;
+        this.filas = filas;
+        this.bytes = bytes;
+    }
+
+    public String getArchivo() {
+        return archivo;
+    }
+
+    public void setArchivo(String archivo) {
+        this.archivo = archivo;
+    }
+
+    public int getFilas() {
+        return filas;
+    }
+
+    public void setFilas(int filas) {
+        this.filas = filas;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+}
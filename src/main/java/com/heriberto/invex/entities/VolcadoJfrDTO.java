@@ -0,0 +1,61 @@
+package com.heriberto.invex.entities;
+
+import java.time.Instant;
+
+/**
+ * Resultado del volcado de la grabación JFR continua a un archivo.
+ */
+public class VolcadoJfrDTO {
+
+    private String archivo;
+
+    private long bytes;
+
+    private Instant desde;
+
+    private Instant hasta;
+
+    public VolcadoJfrDTO() {
+
+    }
+
+    public VolcadoJfrDTO(String archivo, long bytes, Instant desde, Instant hasta) {
+        this.archivo = archivo;
+        this.bytes = bytes;
+        this.desde = desde;
+        this.hasta = hasta;
+    }
+
+    public String getArchivo() {
+        return archivo;
+    }
+
+    public void setArchivo(String archivo) {
+        this.archivo = archivo;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public Instant getDesde() {
+        return desde;
+    }
+
+    public void setDesde(Instant desde) {
+        this.desde = desde;
+    }
+
+    public Instant getHasta() {
+        return hasta;
+    }
+
+    public void setHasta(Instant hasta) {
+        this.hasta = hasta;
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.heriberto.invex.events;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.heriberto.invex.entities.Empleado;
+
+/**
+ * Evento publicado por el servicio de empleados en cada escritura. Los
+ * componentes que mantienen vistas en memoria (estadísticas, índices,
+ * contadores) lo escuchan tras el commit de la transacción.
+ */
+public class EmpleadoEvent {
+
+    public enum Tipo {
+        ALTA, MODIFICACION, BAJA, CARGA_MASIVA
+    }
+
+    private final Tipo tipo;
+    private final List<Empleado> empleados;
+    private final Empleado anterior;
+    private final int filas;
+
+    private EmpleadoEvent(Tipo tipo, List<Empleado> empleados, Empleado anterior, int filas) {
+        this.tipo = tipo;
+        this.empleados = empleados;
+        this.anterior = anterior;
+        this.filas = filas;
+    }
+
+    public static EmpleadoEvent altas(List<Empleado> empleados) {
+        return new EmpleadoEvent(Tipo.ALTA, empleados, null, empleados.size());
+    }
+
+    public static EmpleadoEvent modificacion(Empleado anterior, Empleado actual) {
+        return new EmpleadoEvent(Tipo.MODIFICACION, Collections.singletonList(actual), anterior, 1);
+    }
+
+    public static EmpleadoEvent baja(Empleado empleado) {
+        return new EmpleadoEvent(Tipo.BAJA, Collections.singletonList(empleado), null, 1);
+    }
+
+    // Cargas cuyas entidades no se conservan: los oyentes ajustan lo que pueden
+    // con el número de filas y recalculan el resto desde la base de datos en
+    // segundo plano, agrupando las cargas seguidas en un solo recálculo
+    public static EmpleadoEvent cargaMasiva(int filas) {
+        return new EmpleadoEvent(Tipo.CARGA_MASIVA, Collections.emptyList(), null, filas);
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    // Empleados dados de alta, el estado nuevo de una modificación o el empleado dado de baja
+    public List<Empleado> getEmpleados() {
+        return empleados;
+    }
+
+    // Estado previo de una modificación
+    public Empleado getAnterior() {
+        return anterior;
+    }
+
+    public int getFilas() {
+        return filas;
+    }
+
+}
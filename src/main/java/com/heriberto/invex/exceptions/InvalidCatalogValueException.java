@@ -0,0 +1,9 @@
+package com.heriberto.invex.exceptions;
+
+public class InvalidCatalogValueException extends RuntimeException {
+
+    public InvalidCatalogValueException(String message) {
+        super(message);
+    }
+
+}
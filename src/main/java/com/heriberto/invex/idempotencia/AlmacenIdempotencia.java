@@ -0,0 +1,198 @@
+package com.heriberto.invex.idempotencia;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Respuestas recordadas por clave de idempotencia (cabecera Idempotency-Key).
+ * 
+ * La primera petición con una clave ejecuta la operación; una repetición que
+ * llega mientras sigue en curso recibe 409 de inmediato, sin esperar ocupando
+ * su lugar en el carril de admisión, y las posteriores reciben la respuesta
+ * guardada sin tocar la base de datos. Las respuestas 5xx no se guardan para
+ * que el cliente pueda reintentar. Una repetición cuyo cuerpo no coincide con
+ * el de la primera petición (huella SHA-256) recibe 422.
+ * 
+ * Se guarda una versión compacta de la respuesta (estado, cabeceras e ids en
+ * lugar de las entidades), de modo que cada entrada ocupa poco aunque la
+ * respuesta original fuera grande. El almacén está acotado en número de
+ * entradas y cada entrada caduca tras el TTL.
+ */
+@Component
+public class AlmacenIdempotencia {
+
+    public static final String CABECERA_CLAVE = "Idempotency-Key";
+    public static final String CABECERA_REPETIDA = "Idempotent-Replayed";
+
+    private static final Logger logger = LoggerFactory.getLogger(AlmacenIdempotencia.class);
+
+    private final int maximoEntradas;
+    private final long ttlNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Orden de inserción: con un TTL fijo, la primera entrada es la que antes caduca
+    private final LinkedHashMap<String, Entrada> completadas = new LinkedHashMap<>();
+    private final Set<String> enCurso = new HashSet<>();
+
+    public AlmacenIdempotencia(
+            @Value("${invex.idempotencia.maximo-entradas:1000}") int maximoEntradas,
+            @Value("${invex.idempotencia.ttl-segundos:86400}") long ttlSegundos) {
+        this.maximoEntradas = maximoEntradas;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSegundos);
+    }
+
+    /**
+     * Ejecutar la operación una sola vez por clave.
+     * 
+     * @param clave     La clave de idempotencia, ya acotada al endpoint y a las
+     *                  preferencias que cambian la respuesta.
+     * @param huella    La huella del cuerpo de la petición; se pide después de
+     *                  ejecutar la operación para que los cuerpos en flujo se
+     *                  lean una sola vez.
+     * @param operacion La operación que produce la respuesta.
+     * @param compactar La versión de la respuesta que se guarda para las
+     *                  repeticiones.
+     * @return La respuesta de la operación, o la guardada de una ejecución
+     *         anterior con la cabecera Idempotent-Replayed, o CONFLICT (409) si
+     *         la primera ejecución sigue en curso, o
+     *         UNPROCESSABLE_ENTITY (422) si el cuerpo no coincide con el de la
+     *         primera petición.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> ejecutar(String clave, Supplier<String> huella, Supplier<ResponseEntity<T>> operacion,
+            Function<ResponseEntity<T>, ResponseEntity<?>> compactar) {
+        Entrada guardada;
+        boolean propia = false;
+        lock.lock();
+        try {
+            purgarCaducadas(System.nanoTime());
+            guardada = completadas.get(clave);
+            if (guardada == null) {
+                propia = enCurso.add(clave);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (guardada != null) {
+            return (ResponseEntity<T>) repetir(clave, guardada, huella.get());
+        }
+        if (!propia) {
+            // Esperar aquí retendría el lugar de carril que la repetición ya ocupa
+            logger.warn("La petición con clave de idempotencia {} sigue en curso", clave);
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+
+        ResponseEntity<T> respuesta;
+        Entrada entrada;
+        try {
+            respuesta = operacion.get();
+            String huellaPropia = huella.get();
+            entrada = respuesta.getStatusCode().is5xxServerError() ? new Entrada(respuesta, huellaPropia, 0)
+                    : new Entrada(compactar.apply(respuesta), huellaPropia, System.nanoTime() + ttlNanos);
+        } catch (RuntimeException e) {
+            terminar(clave, null);
+            throw e;
+        }
+        terminar(clave, respuesta.getStatusCode().is5xxServerError() ? null : entrada);
+        return respuesta;
+    }
+
+    // Huella SHA-256 en hexadecimal de un cuerpo ya leído
+    static String huella(byte[] cuerpo) {
+        return hexadecimal(sha256().digest(cuerpo));
+    }
+
+    public int tamano() {
+        lock.lock();
+        try {
+            return completadas.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void terminar(String clave, Entrada entrada) {
+        lock.lock();
+        try {
+            enCurso.remove(clave);
+            if (entrada != null) {
+                completadas.put(clave, entrada);
+                if (completadas.size() > maximoEntradas) {
+                    Iterator<String> mayor = completadas.keySet().iterator();
+                    mayor.next();
+                    mayor.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void purgarCaducadas(long ahora) {
+        Iterator<Entrada> entradas = completadas.values().iterator();
+        while (entradas.hasNext() && entradas.next().caducidad - ahora <= 0) {
+            entradas.remove();
+        }
+    }
+
+    private static ResponseEntity<?> repetir(String clave, Entrada entrada, String huella) {
+        if (!Objects.equals(entrada.huella, huella)) {
+            logger.warn("La clave de idempotencia {} se reutilizó con otro cuerpo", clave);
+            return new ResponseEntity<>(HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+        logger.info("Respuesta repetida para la clave de idempotencia {}", clave);
+        HttpHeaders cabeceras = new HttpHeaders();
+        cabeceras.putAll(entrada.respuesta.getHeaders());
+        cabeceras.set(CABECERA_REPETIDA, "true");
+        return new ResponseEntity<>(entrada.respuesta.getBody(), cabeceras, entrada.respuesta.getStatusCode());
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    static String hexadecimal(byte[] bytes) {
+        StringBuilder texto = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            texto.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return texto.toString();
+    }
+
+    private static final class Entrada {
+
+        private final ResponseEntity<?> respuesta;
+        private final String huella;
+        private final long caducidad;
+
+        Entrada(ResponseEntity<?> respuesta, String huella, long caducidad) {
+            this.respuesta = respuesta;
+            this.huella = huella;
+            this.caducidad = caducidad;
+        }
+
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.heriberto.invex.idempotencia;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestInputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Cuerpo de una petición que se procesa en flujo. Con clave de idempotencia
+ * se calcula su huella a medida que se lee, sin guardarlo en memoria, para
+ * comprobar que un reintento envía el mismo contenido.
+ */
+public class CuerpoPeticion {
+
+    private final HttpServletRequest request;
+    private final boolean conHuella;
+    private InputStream entrada;
+    private DigestInputStream resumen;
+    private String huella;
+
+    public CuerpoPeticion(HttpServletRequest request, boolean conHuella) {
+        this.request = request;
+        this.conHuella = conHuella;
+    }
+
+    public InputStream abrir() throws IOException {
+        if (entrada == null) {
+            if (conHuella) {
+                resumen = new DigestInputStream(new SinCierre(request.getInputStream()), AlmacenIdempotencia.sha256());
+                entrada = resumen;
+            } else {
+                entrada = request.getInputStream();
+            }
+        }
+        return entrada;
+    }
+
+    // Huella del cuerpo completo; lee lo que la operación no haya consumido
+    public String huella() {
+        if (huella == null) {
+            try {
+                abrir();
+                byte[] descarte = new byte[8192];
+                while (resumen.read(descarte) != -1) {
+                    // Solo se actualiza el resumen
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error al leer el cuerpo de la petición", e);
+            }
+            huella = AlmacenIdempotencia.hexadecimal(resumen.getMessageDigest().digest());
+        }
+        return huella;
+    }
+
+    // El lector de la operación puede cerrar la entrada antes de calcular la huella
+    private static final class SinCierre extends FilterInputStream {
+
+        SinCierre(InputStream entrada) {
+            super(entrada);
+        }
+
+        @Override
+        public void close() {
+            // El contenedor cierra el cuerpo al terminar la petición
+        }
+
+    }
+
+}
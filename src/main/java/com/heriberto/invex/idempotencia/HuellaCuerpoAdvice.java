@@ -0,0 +1,90 @@
+package com.heriberto.invex.idempotencia;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.security.DigestInputStream;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+/**
+ * Huella de los cuerpos @RequestBody con clave de idempotencia. Se calcula
+ * sobre los bytes recibidos mientras el convertidor los lee, sin volver a
+ * serializar el objeto, y queda en el atributo de petición ATRIBUTO_HUELLA.
+ */
+@ControllerAdvice
+public class HuellaCuerpoAdvice extends RequestBodyAdviceAdapter {
+
+    public static final String ATRIBUTO_HUELLA = HuellaCuerpoAdvice.class.getName() + ".huella";
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+            Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+            Class<? extends HttpMessageConverter<?>> converterType) throws IOException {
+        if (!inputMessage.getHeaders().containsKey(AlmacenIdempotencia.CABECERA_CLAVE)) {
+            return inputMessage;
+        }
+        return new ConHuella(inputMessage);
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+            Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        if (inputMessage instanceof ConHuella) {
+            RequestContextHolder.currentRequestAttributes().setAttribute(ATRIBUTO_HUELLA,
+                    ((ConHuella) inputMessage).huella(), RequestAttributes.SCOPE_REQUEST);
+        }
+        return body;
+    }
+
+    private static final class ConHuella implements HttpInputMessage {
+
+        private final HttpHeaders headers;
+        private final DigestInputStream resumen;
+
+        ConHuella(HttpInputMessage original) throws IOException {
+            this.headers = original.getHeaders();
+            this.resumen = new DigestInputStream(StreamUtils.nonClosing(original.getBody()),
+                    AlmacenIdempotencia.sha256());
+        }
+
+        @Override
+        public InputStream getBody() {
+            return resumen;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        // El convertidor puede cerrar la entrada o dejar sin leer lo que sigue al documento
+        String huella() {
+            try {
+                byte[] descarte = new byte[8192];
+                while (resumen.read(descarte) != -1) {
+                    // Solo se actualiza el resumen
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error al leer el cuerpo de la petición", e);
+            }
+            return AlmacenIdempotencia.hexadecimal(resumen.getMessageDigest().digest());
+        }
+
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.heriberto.invex.perfilado;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de una llamada a EmpleadoService. En JDK Mission Control se
+ * cruza con las muestras de CPU, las esperas de socket (JDBC) y de locks y
+ * las asignaciones del mismo hilo durante la llamada.
+ */
+@Name(EventoEmpleadoService.NOMBRE)
+@Label("Operación de EmpleadoService")
+@Category({ "Invex", "Servicios" })
+@Description("Duración de cada método de EmpleadoService")
+@StackTrace(false)
+public class EventoEmpleadoService extends Event {
+
+    public static final String NOMBRE = "com.heriberto.invex.EmpleadoService";
+
+    @Label("Método")
+    String metodo;
+
+    @Label("Elementos")
+    @Description("Tamaño de la lista recibida o devuelta; 0 si no hay lista")
+    int elementos;
+
+    @Label("Éxito")
+    boolean exito;
+
+}
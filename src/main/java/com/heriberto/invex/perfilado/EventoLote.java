@@ -0,0 +1,50 @@
+package com.heriberto.invex.perfilado;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de un lote de una operación masiva (ingesta en paralelo, carga
+ * en flujo o CSV, escritura diferida, archivado). Marca los límites de cada
+ * lote para separar el tiempo de conversión del de escritura.
+ */
+@Name(EventoLote.NOMBRE)
+@Label("Lote de operación masiva")
+@Category({ "Invex", "Lotes" })
+@StackTrace(false)
+public class EventoLote extends Event {
+
+    public static final String NOMBRE = "com.heriberto.invex.Lote";
+
+    @Label("Operación")
+    String operacion;
+
+    @Label("Filas")
+    @Description("Filas del lote; en la escritura, las afectadas")
+    long filas;
+
+    EventoLote(String operacion) {
+        this.operacion = operacion;
+    }
+
+    // Iniciar la medición del lote
+    public static EventoLote iniciar(String operacion) {
+        EventoLote evento = new EventoLote(operacion);
+        evento.begin();
+        return evento;
+    }
+
+    // Registrar el lote si el evento está activo y supera el umbral
+    public void terminar(long filas) {
+        end();
+        if (shouldCommit()) {
+            this.filas = filas;
+            commit();
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.heriberto.invex.perfilado;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import com.heriberto.invex.entities.VolcadoJfrDTO;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+/**
+ * Grabación continua de JDK Flight Recorder.
+ * 
+ * Arranca con la configuración {@code default} del JDK (pensada para
+ * producción, con menos del 1% de sobrecarga) ajustada por
+ * {@code jfr/invex.jfc}, y se guarda en disco limitada por antigüedad y
+ * tamaño. {@link #volcar(int)} escribe los últimos minutos en un archivo
+ * .jfr para analizarlo fuera de línea con JDK Mission Control o {@code jfr};
+ * solo se conservan los últimos {@code invex.jfr.volcados.maximo} archivos,
+ * así que el espacio en disco queda acotado por ese número y el tamaño máximo
+ * de la grabación.
+ */
+@Component
+@ConditionalOnProperty(name = "invex.jfr.habilitado", havingValue = "true")
+public class GrabacionContinua {
+
+    static final String AJUSTES_INVEX = "jfr/invex.jfc";
+
+    private static final Logger logger = LoggerFactory.getLogger(GrabacionContinua.class);
+    // El nombre ordena los volcados por fecha
+    private static final String PREFIJO_ARCHIVO = "invex-";
+    private static final DateTimeFormatter FORMATO_ARCHIVO = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Duration antiguedadMaxima;
+    private final long tamanoMaximoBytes;
+    private final Path directorio;
+    private final int maximoVolcados;
+
+    // Un volcado a la vez: cada uno fuerza una instantánea de la grabación
+    private final ReentrantLock lock = new ReentrantLock();
+    private Recording grabacion;
+
+    public GrabacionContinua(
+            @Value("${invex.jfr.antiguedad-maxima-minutos:30}") long antiguedadMaximaMinutos,
+            @Value("${invex.jfr.tamano-maximo-mb:250}") long tamanoMaximoMb,
+            @Value("${invex.jfr.directorio:${java.io.tmpdir}/invex-jfr}") String directorio,
+            @Value("${invex.jfr.volcados.maximo:3}") int maximoVolcados) {
+        this.antiguedadMaxima = Duration.ofMinutes(antiguedadMaximaMinutos);
+        this.tamanoMaximoBytes = tamanoMaximoMb * 1024 * 1024;
+        this.directorio = Paths.get(directorio);
+        this.maximoVolcados = Math.max(1, maximoVolcados);
+    }
+
+    @PostConstruct
+    public void iniciar() throws IOException, ParseException {
+        grabacion = new Recording(ajustes());
+        grabacion.setName("invex");
+        grabacion.setToDisk(true);
+        grabacion.setMaxAge(antiguedadMaxima);
+        grabacion.setMaxSize(tamanoMaximoBytes);
+        grabacion.start();
+        logger.info("Grabación JFR continua iniciada: últimos {} minutos, hasta {} MB.",
+                antiguedadMaxima.toMinutes(), tamanoMaximoBytes / (1024 * 1024));
+    }
+
+    /**
+     * Escribir en un archivo los últimos minutos de la grabación.
+     * 
+     * @param minutos Los minutos a volcar, entre 1 y la antigüedad máxima.
+     * @return El archivo escrito y el intervalo que cubre, o null si la
+     *         grabación aún no tiene datos del intervalo.
+     * @throws IllegalArgumentException Si los minutos están fuera de rango.
+     * @throws IOException              Si no se puede escribir el archivo.
+     */
+    public VolcadoJfrDTO volcar(int minutos) throws IOException {
+        if (minutos < 1 || minutos > antiguedadMaxima.toMinutes()) {
+            throw new IllegalArgumentException(
+                    "Los minutos deben estar entre 1 y " + antiguedadMaxima.toMinutes());
+        }
+        Instant hasta = Instant.now();
+        Instant desde = hasta.minus(Duration.ofMinutes(minutos));
+        lock.lock();
+        try {
+            Files.createDirectories(directorio);
+            Path archivo = directorio.resolve(PREFIJO_ARCHIVO + LocalDateTime.now().format(FORMATO_ARCHIVO) + ".jfr");
+            // La instantánea cierra el fragmento en curso, de modo que el
+            // volcado incluye los eventos hasta este momento; el archivo puede
+            // empezar algo antes de 'desde' porque se copian fragmentos enteros
+            try (Recording instantanea = FlightRecorder.getFlightRecorder().takeSnapshot();
+                    InputStream datos = instantanea.getStream(desde, hasta)) {
+                if (datos == null) {
+                    return null;
+                }
+                // Dos volcados en el mismo milisegundo comparten archivo
+                long bytes = Files.copy(datos, archivo, StandardCopyOption.REPLACE_EXISTING);
+                logger.info("Volcado JFR de los últimos {} minutos en {} ({} bytes).", minutos, archivo, bytes);
+                rotar();
+                return new VolcadoJfrDTO(archivo.toAbsolutePath().toString(), bytes, desde, hasta);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Borrar los volcados más antiguos por encima del máximo
+    private void rotar() throws IOException {
+        List<Path> volcados = new ArrayList<>();
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, PREFIJO_ARCHIVO + "*.jfr")) {
+            archivos.forEach(volcados::add);
+        }
+        Collections.sort(volcados);
+        for (Path antiguo : volcados.subList(0, Math.max(0, volcados.size() - maximoVolcados))) {
+            Files.deleteIfExists(antiguo);
+            logger.info("Volcado JFR antiguo eliminado: {}", antiguo);
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (grabacion != null) {
+            grabacion.close();
+        }
+    }
+
+    // Configuración "default" con los ajustes de invex.jfc por encima
+    static Map<String, String> ajustes() throws IOException, ParseException {
+        Map<String, String> ajustes = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        try (Reader lector = new InputStreamReader(
+                new ClassPathResource(AJUSTES_INVEX).getInputStream(), StandardCharsets.UTF_8)) {
+            ajustes.putAll(Configuration.create(lector).getSettings());
+        }
+        return ajustes;
+    }
+
+}
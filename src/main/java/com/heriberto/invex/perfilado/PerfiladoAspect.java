@@ -0,0 +1,51 @@
+package com.heriberto.invex.perfilado;
+
+import java.util.Collection;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emite un {@link EventoEmpleadoService} por cada llamada a EmpleadoService.
+ * Si el evento no está activo en ninguna grabación la llamada no se mide.
+ */
+@Aspect
+@Component
+public class PerfiladoAspect {
+
+    @Around("execution(* com.heriberto.invex.services.EmpleadoService.*(..))")
+    public Object medir(ProceedingJoinPoint llamada) throws Throwable {
+        EventoEmpleadoService evento = new EventoEmpleadoService();
+        if (!evento.isEnabled()) {
+            return llamada.proceed();
+        }
+        evento.begin();
+        evento.metodo = llamada.getSignature().getName();
+        evento.elementos = elementos(llamada.getArgs());
+        try {
+            Object resultado = llamada.proceed();
+            evento.exito = true;
+            if (evento.elementos == 0 && resultado instanceof Collection) {
+                evento.elementos = ((Collection<?>) resultado).size();
+            }
+            return resultado;
+        } finally {
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.commit();
+            }
+        }
+    }
+
+    private static int elementos(Object[] argumentos) {
+        for (Object argumento : argumentos) {
+            if (argumento instanceof Collection) {
+                return ((Collection<?>) argumento).size();
+            }
+        }
+        return 0;
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.heriberto.invex.repositories;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import com.heriberto.invex.entities.EntradaCatalogo;
+
+// Consultas comunes a los catálogos de puesto y sexo
+@NoRepositoryBean
+public interface CatalogoRepository<T extends EntradaCatalogo> extends JpaRepository<T, Integer> {
+
+    Optional<T> findByNombre(String nombre);
+
+}
@@ -0,0 +1,19 @@
+package com.heriberto.invex.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.heriberto.invex.entities.EmpleadoEliminado;
+
+@Repository
+public interface EmpleadoEliminadoRepository extends JpaRepository<EmpleadoEliminado, Long> {
+
+    @Query("SELECT t FROM EmpleadoEliminado t WHERE t.deleted_at >= :desde ORDER BY t.deleted_at")
+    List<EmpleadoEliminado> findEliminadosDesde(@Param("desde") LocalDateTime desde);
+
+}
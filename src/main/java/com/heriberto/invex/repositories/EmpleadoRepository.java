@@ -1,6 +1,17 @@
 package com.heriberto.invex.repositories;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.heriberto.invex.entities.Empleado;
@@ -8,4 +19,38 @@ import com.heriberto.invex.entities.Empleado;
 @Repository
 public interface EmpleadoRepository extends JpaRepository<Empleado, Long> {
 
+    // Usa el índice sobre updatedAt
+    @Query("SELECT e FROM Empleado e WHERE e.updated_at >= :desde ORDER BY e.updated_at")
+    List<Empleado> findModificadosDesde(@Param("desde") LocalDateTime desde);
+
+    // Recorrido completo sin materializar la lista; con MySQL el fetch size
+    // Integer.MIN_VALUE activa la lectura fila a fila. Requiere una transacción abierta.
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT e FROM Empleado e")
+    Stream<Empleado> streamAll();
+
+    // Paginación por clave (keyset): cada página continúa tras el último id leído
+    @Query("SELECT e FROM Empleado e WHERE e.id > :ultimoId ORDER BY e.id")
+    List<Empleado> findPaginaDesde(@Param("ultimoId") Long ultimoId, Pageable pagina);
+
+    // Lecturas que incluyen las bajas, tanto las pendientes de archivar como las
+    // ya movidas a empleado_archivo (misma estructura que empleado)
+    @Query(value = "SELECT * FROM empleado UNION ALL SELECT * FROM empleado_archivo ORDER BY id",
+            nativeQuery = true)
+    List<Empleado> findAllConArchivo();
+
+    @Query(value = "SELECT * FROM empleado WHERE id = :id UNION ALL SELECT * FROM empleado_archivo WHERE id = :id",
+            nativeQuery = true)
+    Optional<Empleado> findByIdConArchivo(@Param("id") Long id);
+
+    // Conteos agrupados: cada fila es [valor, cantidad]
+    @Query("SELECT e.puesto, COUNT(e) FROM Empleado e GROUP BY e.puesto")
+    List<Object[]> contarPorPuesto();
+
+    @Query("SELECT e.sexo, COUNT(e) FROM Empleado e GROUP BY e.sexo")
+    List<Object[]> contarPorSexo();
+
+    @Query("SELECT e.edad, COUNT(e) FROM Empleado e GROUP BY e.edad")
+    List<Object[]> contarPorEdad();
+
 }
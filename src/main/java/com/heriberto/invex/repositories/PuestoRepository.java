@@ -0,0 +1,10 @@
+package com.heriberto.invex.repositories;
+
+import org.springframework.stereotype.Repository;
+
+import com.heriberto.invex.entities.Puesto;
+
+@Repository
+public interface PuestoRepository extends CatalogoRepository<Puesto> {
+
+}
@@ -0,0 +1,7 @@
+package com.heriberto.invex.services;
+
+public interface ArchivoService {
+
+    int archivar();
+
+}
@@ -0,0 +1,93 @@
+package com.heriberto.invex.services;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.heriberto.invex.perfilado.EventoLote;
+
+/**
+ * Archivado de empleados dados de baja. Las bajas lógicas se mueven por lotes
+ * de la tabla empleado a empleado_archivo para que la tabla activa y sus
+ * índices solo contengan la plantilla actual.
+ */
+@Service
+public class ArchivoServiceImpl implements ArchivoService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${invex.archivo.dias-retencion:30}")
+    private int diasRetencion = 30;
+
+    @Value("${invex.archivo.tamano-lote:500}")
+    private int tamanoLote = 500;
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchivoServiceImpl.class);
+
+    // La tabla de archivo copia la estructura de empleado, incluidos sus índices
+    @EventListener(ApplicationReadyEvent.class)
+    public void crearTablaArchivo() {
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS empleado_archivo LIKE empleado");
+        } catch (DataAccessException e) {
+            logger.warn("No se pudo crear la tabla empleado_archivo; créala manualmente", e);
+        }
+    }
+
+    // Mover a la tabla de archivo las bajas más antiguas que la retención
+    @Override
+    @Scheduled(initialDelayString = "${invex.archivo.intervalo-ms:3600000}",
+            fixedDelayString = "${invex.archivo.intervalo-ms:3600000}")
+    public int archivar() {
+        Timestamp limite = Timestamp.valueOf(LocalDateTime.now().minusDays(diasRetencion));
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        int total = 0;
+        int movidos;
+        // Cada lote va en su propia transacción para no bloquear la tabla activa
+        do {
+            EventoLote evento = EventoLote.iniciar("archivo");
+            Integer lote = transaccion.execute(estado -> moverLote(limite));
+            movidos = lote == null ? 0 : lote;
+            evento.terminar(movidos);
+            total += movidos;
+        } while (movidos == tamanoLote);
+
+        if (total > 0) {
+            logger.info("Se archivaron {} empleados dados de baja antes de {}.", total, limite);
+        }
+        return total;
+    }
+
+    private int moverLote(Timestamp limite) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM empleado WHERE fecha_baja < ? ORDER BY id LIMIT ? FOR UPDATE",
+                Long.class, limite, tamanoLote);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String marcadores = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] parametros = ids.toArray();
+        jdbcTemplate.update("INSERT INTO empleado_archivo SELECT * FROM empleado WHERE id IN (" + marcadores + ")",
+                parametros);
+        return jdbcTemplate.update("DELETE FROM empleado WHERE id IN (" + marcadores + ")", parametros);
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.heriberto.invex.services;
+
+import java.util.List;
+
+import com.heriberto.invex.entities.Empleado;
+
+public interface BusquedaService {
+
+    List<Empleado> buscarPorNombre(String nombre, int limite);
+
+    void reconstruirIndice();
+
+}
@@ -0,0 +1,214 @@
+package com.heriberto.invex.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.heriberto.invex.busqueda.IndiceTrigramas;
+import com.heriberto.invex.entities.Empleado;
+import com.heriberto.invex.events.EmpleadoEvent;
+import com.heriberto.invex.repositories.EmpleadoRepository;
+
+/**
+ * Búsqueda aproximada de empleados por nombre sobre un índice de trigramas
+ * en memoria. El índice se construye al arrancar recorriendo la tabla en
+ * streaming y se mantiene con los eventos de escritura del servicio de
+ * empleados.
+ * 
+ * Tras una carga masiva, o si la base de datos no estaba disponible al
+ * arrancar, la reconstrucción se hace en segundo plano con la tarea
+ * programada; las cargas que llegan mientras tanto se agrupan en una sola.
+ * Los cambios recibidos durante el recorrido se aplican al índice vigente y se
+ * repiten sobre el nuevo antes de sustituirlo.
+ */
+@Service
+public class BusquedaServiceImpl implements BusquedaService {
+
+    @Autowired
+    private EmpleadoRepository empleadoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${invex.busqueda.umbral:0.4}")
+    private double umbral = 0.4;
+
+    private static final Logger logger = LoggerFactory.getLogger(BusquedaServiceImpl.class);
+
+    private volatile IndiceTrigramas indice = new IndiceTrigramas();
+
+    // Una reconstrucción a la vez; mientras dura, los eventos se anotan en "durante"
+    private final ReentrantLock reconstruccion = new ReentrantLock();
+    private final Object cambios = new Object();
+    private List<EmpleadoEvent> durante;
+
+    private final AtomicBoolean reconstruccionPendiente = new AtomicBoolean();
+
+    // Buscar empleados por nombre, ordenados por parecido
+    @Override
+    @Transactional(readOnly = true)
+    public List<Empleado> buscarPorNombre(String nombre, int limite) {
+        if (nombre == null || nombre.trim().isEmpty()) {
+            throw new IllegalArgumentException("El nombre a buscar no puede estar vacío");
+        }
+        long[] ids = indice.buscar(nombre, limite, umbral);
+        if (ids.length == 0) {
+            return Collections.emptyList();
+        }
+
+        // Posición de cada id en el resultado, buscada sobre una copia ordenada
+        long[] porId = ids.clone();
+        Arrays.sort(porId);
+        int[] posiciones = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            posiciones[Arrays.binarySearch(porId, ids[i])] = i;
+        }
+        Empleado[] ordenados = new Empleado[ids.length];
+        // JPA solo acepta los ids envueltos como parámetro de la consulta
+        List<Long> consulta = LongStream.of(ids).boxed().collect(Collectors.toList());
+        for (Empleado empleado : empleadoRepository.findAllById(consulta)) {
+            ordenados[posiciones[Arrays.binarySearch(porId, empleado.getId())]] = empleado;
+        }
+
+        List<Empleado> empleados = new ArrayList<>(ordenados.length);
+        for (Empleado empleado : ordenados) {
+            if (empleado != null) {
+                empleados.add(empleado);
+            }
+        }
+        return empleados;
+    }
+
+    // Construcción inicial; si la base de datos no responde, la aplicación
+    // arranca igualmente y la tarea programada reintenta
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        try {
+            reconstruirIndice();
+        } catch (RuntimeException e) {
+            logger.error("Error al construir el índice de nombres; se reintentará", e);
+            reconstruccionPendiente.set(true);
+        }
+    }
+
+    // Reconstrucción pendiente por una carga masiva o por un fallo anterior
+    @Scheduled(fixedDelayString = "${invex.busqueda.recarga-ms:5000}")
+    public void reconstruirPendiente() {
+        if (reconstruccionPendiente.getAndSet(false)) {
+            iniciar();
+        }
+    }
+
+    // Reconstruir el índice completo recorriendo la tabla en streaming
+    @Override
+    public void reconstruirIndice() {
+        reconstruccion.lock();
+        try {
+            long inicio = System.currentTimeMillis();
+            synchronized (cambios) {
+                durante = new ArrayList<>();
+            }
+            IndiceTrigramas nuevo = new IndiceTrigramas();
+            try {
+                TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+                transaccion.setReadOnly(true);
+                transaccion.execute(estado -> {
+                    try (Stream<Empleado> empleados = empleadoRepository.streamAll()) {
+                        empleados.forEach(empleado -> {
+                            nuevo.indexar(empleado.getId(), textoIndexable(empleado));
+                            // No acumular entidades en el contexto de persistencia
+                            entityManager.detach(empleado);
+                        });
+                    }
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                synchronized (cambios) {
+                    durante = null;
+                }
+                throw e;
+            }
+            // Indexar es idempotente por id: repetir un cambio ya leído no lo duplica
+            synchronized (cambios) {
+                durante.forEach(evento -> aplicar(evento, nuevo));
+                durante = null;
+                indice = nuevo;
+            }
+            logger.info("Índice de nombres construido: {} empleados en {} ms.", nuevo.getDocumentos(),
+                    System.currentTimeMillis() - inicio);
+        } finally {
+            reconstruccion.unlock();
+        }
+    }
+
+    // Mantener el índice tras cada escritura confirmada
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarEmpleados(EmpleadoEvent evento) {
+        if (evento.getTipo() == EmpleadoEvent.Tipo.CARGA_MASIVA) {
+            // No se reconstruye en el hilo de la petición
+            reconstruccionPendiente.set(true);
+            return;
+        }
+        synchronized (cambios) {
+            aplicar(evento, indice);
+            if (durante != null) {
+                durante.add(evento);
+            }
+        }
+    }
+
+    boolean isReconstruccionPendiente() {
+        return reconstruccionPendiente.get();
+    }
+
+    private static void aplicar(EmpleadoEvent evento, IndiceTrigramas destino) {
+        switch (evento.getTipo()) {
+            case ALTA:
+            case MODIFICACION:
+                evento.getEmpleados().forEach(empleado -> destino.indexar(empleado.getId(), textoIndexable(empleado)));
+                break;
+            case BAJA:
+                evento.getEmpleados().forEach(empleado -> destino.eliminar(empleado.getId()));
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static String textoIndexable(Empleado empleado) {
+        StringBuilder texto = new StringBuilder();
+        for (String parte : new String[] { empleado.getPrimer_nombre(), empleado.getSegundo_nombre(),
+                empleado.getApellido_paterno(), empleado.getApellido_materno() }) {
+            if (parte != null) {
+                texto.append(parte).append(' ');
+            }
+        }
+        return texto.toString();
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.heriberto.invex.services;
+
+import java.io.InputStream;
+
+import com.heriberto.invex.entities.ResultadoCargaDTO;
+
+public interface CargaMasivaService {
+
+    ResultadoCargaDTO cargarJson(InputStream entrada);
+
+    ResultadoCargaDTO cargarCsv(InputStream entrada);
+
+}
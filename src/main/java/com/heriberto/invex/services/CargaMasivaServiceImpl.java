@@ -0,0 +1,484 @@
+package com.heriberto.invex.services;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.heriberto.invex.catalogo.Catalogo;
+import com.heriberto.invex.catalogo.Catalogos;
+import com.heriberto.invex.entities.Empleado;
+import com.heriberto.invex.entities.EmpleadoDTO;
+import com.heriberto.invex.entities.ResultadoCargaDTO;
+import com.heriberto.invex.events.EmpleadoEvent;
+import com.heriberto.invex.exceptions.InvalidCatalogValueException;
+import com.heriberto.invex.exceptions.InvalidDateFormatException;
+import com.heriberto.invex.perfilado.EventoLote;
+import com.heriberto.invex.repositories.EmpleadoRepository;
+import com.mysql.cj.jdbc.JdbcStatement;
+
+/**
+ * Cargas masivas de empleados cuyo consumo de memoria depende del tamaño del
+ * lote y no del tamaño del archivo recibido.
+ */
+@Service
+public class CargaMasivaServiceImpl implements CargaMasivaService {
+
+    @Autowired
+    private EmpleadoRepository empleadoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Catalogos catalogos;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${invex.carga.tamano-lote:500}")
+    private int tamanoLote = 500;
+
+    private static final Logger logger = LoggerFactory.getLogger(CargaMasivaServiceImpl.class);
+
+    // Columnas de la tabla empleado en el orden en que se cargan
+    private static final String COLUMNAS = "primer_nombre, segundo_nombre, apellido_paterno, apellido_materno, "
+            + "edad, sexo_id, fecha_nacimiento, puesto_id, created_at, updated_at";
+    private static final int NUMERO_COLUMNAS = 10;
+    // Campos del CSV; coinciden con las propiedades del empleado
+    private static final String[] CAMPOS_CSV = { "primer_nombre", "segundo_nombre", "apellido_paterno",
+            "apellido_materno", "edad", "sexo", "fecha_nacimiento", "puesto" };
+    private static final List<String> CAMPOS = Arrays.asList(CAMPOS_CSV);
+    private static final int LONGITUD_MAXIMA = 15;
+    private static final int ERRORES_MAXIMOS = 100;
+    private static final Pattern FILA_AVISO = Pattern.compile("at row (\\d+)");
+
+    // Insertar empleados leyendo un arreglo JSON elemento a elemento
+    @Override
+    @Transactional
+    public ResultadoCargaDTO cargarJson(InputStream entrada) {
+        long inicio = System.currentTimeMillis();
+        long insertados = 0;
+        long fila = 0;
+        List<Empleado> lote = new ArrayList<>(tamanoLote);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(entrada)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Se esperaba un arreglo JSON de empleados");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                fila++;
+                EmpleadoDTO dto = objectMapper.readValue(parser, EmpleadoDTO.class);
+                lote.add(validar(convertir(dto, fila), fila));
+                if (lote.size() == tamanoLote) {
+                    insertados += guardarLote(lote);
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new IllegalArgumentException("Elemento inesperado en la fila " + (fila + 1)
+                        + ": se esperaba un objeto de empleado");
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON inválido cerca de la fila " + (fila + 1) + ": "
+                    + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer el cuerpo de la petición", e);
+        }
+        insertados += guardarLote(lote);
+
+        if (insertados == 0) {
+            logger.warn("Intento de insertar una lista vacía de empleados");
+            throw new IllegalArgumentException("La lista de empleados no puede estar vacía");
+        }
+
+        // Las entidades ya no están en memoria: los oyentes suman el total y
+        // agrupan el recálculo de lo demás en segundo plano
+        eventPublisher.publishEvent(EmpleadoEvent.cargaMasiva((int) insertados));
+        long duracion = System.currentTimeMillis() - inicio;
+        logger.info("Carga JSON en flujo: {} empleados en {} ms.", insertados, duracion);
+        return new ResultadoCargaDTO(insertados, 0, duracion, Collections.emptyList());
+    }
+
+    // Insertar empleados desde un CSV con el cargador nativo de la base de datos
+    @Override
+    @Transactional
+    public ResultadoCargaDTO cargarCsv(InputStream entrada) {
+        long inicio = System.currentTimeMillis();
+        long rechazados = 0;
+        List<String> errores = new ArrayList<>();
+        LocalDateTime ahora = LocalDateTime.now();
+
+        try (DestinoCarga destino = esMySql() ? new DestinoLoadData() : new DestinoInsertMultiple()) {
+            LectorCsv lector = new LectorCsv(
+                    new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8)));
+            long validadas = 0;
+            boolean primera = true;
+            while (true) {
+                try {
+                    List<String> fila = lector.siguienteFila();
+                    if (fila == null) {
+                        break;
+                    }
+                    boolean cabecera = primera && "primer_nombre".equalsIgnoreCase(fila.get(0).trim());
+                    primera = false;
+                    if (cabecera || (fila.size() == 1 && fila.get(0).trim().isEmpty())) {
+                        continue;
+                    }
+                    destino.agregar(filaAEmpleado(fila), ahora, lector.getLinea());
+                    validadas++;
+                } catch (IllegalArgumentException e) {
+                    rechazados++;
+                    if (errores.size() < ERRORES_MAXIMOS) {
+                        errores.add("Línea " + lector.getLinea() + ": " + e.getMessage());
+                    }
+                }
+            }
+            long insertados = destino.terminar(errores);
+            // Filas validadas que la base de datos descartó al cargarlas
+            rechazados += validadas - insertados;
+
+            if (insertados == 0 && rechazados == 0) {
+                logger.warn("Intento de insertar una lista vacía de empleados");
+                throw new IllegalArgumentException("La lista de empleados no puede estar vacía");
+            }
+            if (insertados > 0) {
+                eventPublisher.publishEvent(EmpleadoEvent.cargaMasiva((int) insertados));
+            }
+            long duracion = System.currentTimeMillis() - inicio;
+            ResultadoCargaDTO resultado = new ResultadoCargaDTO(insertados, rechazados, duracion, errores);
+            logger.info("Carga CSV: {} empleados insertados, {} líneas rechazadas, {} filas/s.", insertados,
+                    rechazados, resultado.getFilasPorSegundo());
+            return resultado;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer el CSV de empleados", e);
+        }
+    }
+
+    // Valida una fila del CSV con las mismas reglas que la inserción por JSON.
+    // Se revisan todas las columnas para informar de cada problema de la línea
+    private Empleado filaAEmpleado(List<String> fila) {
+        if (fila.size() != CAMPOS_CSV.length) {
+            throw new IllegalArgumentException("Se esperaban " + CAMPOS_CSV.length + " campos y hay " + fila.size());
+        }
+        // Problemas por número de columna, para informarlos en orden
+        Map<Integer, String> problemas = new TreeMap<>();
+        String[] valores = new String[CAMPOS_CSV.length];
+        for (int i = 0; i < CAMPOS_CSV.length; i++) {
+            String valor = texto(fila.get(i));
+            if (valor != null && valor.length() > LONGITUD_MAXIMA) {
+                problemas.put(i, "El campo " + CAMPOS_CSV[i] + " excede " + LONGITUD_MAXIMA + " caracteres");
+            } else {
+                valores[i] = valor;
+            }
+        }
+
+        Empleado empleado = new Empleado();
+        empleado.setPrimer_nombre(valores[0]);
+        empleado.setSegundo_nombre(valores[1]);
+        empleado.setApellido_paterno(valores[2]);
+        empleado.setApellido_materno(valores[3]);
+        if (valores[4] != null) {
+            try {
+                empleado.setEdad(Integer.valueOf(valores[4]));
+            } catch (NumberFormatException e) {
+                problemas.put(4, "Edad inválida: " + valores[4]);
+            }
+        }
+        empleado.setSexo(enCatalogo(catalogos.getSexos(), valores[5], 5, problemas));
+        if (valores[6] != null) {
+            try {
+                empleado.setFecha_nacimiento(EmpleadoMapper.aFecha(valores[6]));
+            } catch (InvalidDateFormatException e) {
+                problemas.put(6, e.getMessage());
+            }
+        }
+        empleado.setPuesto(enCatalogo(catalogos.getPuestos(), valores[7], 7, problemas));
+
+        // Las columnas ya rechazadas quedan nulas: no se informa además que faltan
+        for (ConstraintViolation<Empleado> violacion : validator.validate(empleado)) {
+            int columna = CAMPOS.indexOf(violacion.getPropertyPath().toString());
+            problemas.putIfAbsent(columna < 0 ? CAMPOS.size() : columna, violacion.getMessage());
+        }
+        if (!problemas.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", problemas.values()));
+        }
+        return empleado;
+    }
+
+    private static String enCatalogo(Catalogo catalogo, String valor, int columna, Map<Integer, String> problemas) {
+        String canonico = valor == null ? null : catalogo.canonico(valor);
+        if (valor != null && canonico == null) {
+            problemas.put(columna, "El " + catalogo.getNombre() + " '" + valor + "' no existe en el catálogo.");
+        }
+        return canonico;
+    }
+
+    private static String texto(String valor) {
+        String limpio = valor.trim();
+        return limpio.isEmpty() ? null : limpio;
+    }
+
+    private boolean esMySql() {
+        return jdbcTemplate.execute((ConnectionCallback<Boolean>) conexion -> conexion.getMetaData()
+                .getDatabaseProductName().toLowerCase().contains("mysql"));
+    }
+
+    private Object[] valores(Empleado empleado, LocalDateTime ahora) {
+        Timestamp marca = Timestamp.valueOf(ahora);
+        return new Object[] { empleado.getPrimer_nombre(), empleado.getSegundo_nombre(),
+                empleado.getApellido_paterno(), empleado.getApellido_materno(), empleado.getEdad(),
+                catalogos.getSexos().clave(empleado.getSexo()), Date.valueOf(empleado.getFecha_nacimiento()),
+                catalogos.getPuestos().clave(empleado.getPuesto()), marca, marca };
+    }
+
+    // Destino de las filas ya validadas
+    private interface DestinoCarga extends AutoCloseable {
+
+        void agregar(Empleado empleado, LocalDateTime ahora, long linea) throws IOException;
+
+        // Escribe lo pendiente y devuelve el total de filas insertadas; los
+        // avisos de la base de datos se añaden a los errores
+        long terminar(List<String> errores) throws IOException;
+
+        @Override
+        void close() throws IOException;
+
+    }
+
+    // MySQL: las filas se vuelcan a un archivo temporal y se cargan con
+    // LOAD DATA LOCAL INFILE (requiere allowLoadLocalInfile=true en la URL).
+    // Cada fila lleva al final su línea del CSV, que se lee en una variable y
+    // sirve para situar los avisos de SHOW WARNINGS
+    private final class DestinoLoadData implements DestinoCarga {
+
+        private final Path archivo;
+        private final BufferedWriter escritor;
+        private long filas;
+
+        DestinoLoadData() throws IOException {
+            archivo = Files.createTempFile("empleados-", ".tsv");
+            escritor = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void agregar(Empleado empleado, LocalDateTime ahora, long linea) throws IOException {
+            for (Object valor : valores(empleado, ahora)) {
+                escribirCampo(valor);
+                escritor.write('\t');
+            }
+            escritor.write(Long.toString(linea));
+            escritor.write('\n');
+            filas++;
+        }
+
+        private void escribirCampo(Object valor) throws IOException {
+            if (valor == null) {
+                escritor.write("\\N");
+                return;
+            }
+            String texto = valor.toString();
+            for (int i = 0; i < texto.length(); i++) {
+                char c = texto.charAt(i);
+                if (c == '\\' || c == '\t' || c == '\n') {
+                    escritor.write('\\');
+                }
+                escritor.write(c == '\n' ? 'n' : c == '\t' ? 't' : c);
+            }
+        }
+
+        @Override
+        public long terminar(List<String> errores) throws IOException {
+            escritor.close();
+            if (filas == 0) {
+                return 0;
+            }
+            String sql = "LOAD DATA LOCAL INFILE 'empleados.tsv' INTO TABLE empleado CHARACTER SET utf8mb4 "
+                    + "FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' (" + COLUMNAS
+                    + ", @linea)";
+            List<String> avisos = new ArrayList<>();
+            EventoLote evento = EventoLote.iniciar("csv.load-data");
+            Integer cargadas = jdbcTemplate.execute((ConnectionCallback<Integer>) conexion -> {
+                try (Statement sentencia = conexion.createStatement();
+                        InputStream datos = Files.newInputStream(archivo)) {
+                    sentencia.unwrap(JdbcStatement.class).setLocalInfileInputStream(datos);
+                    int insertadas = sentencia.executeUpdate(sql);
+                    // Con LOCAL los errores de datos llegan como avisos y la fila
+                    // se omite o se ajusta en lugar de abortar la carga
+                    try (ResultSet resultado = sentencia.executeQuery("SHOW WARNINGS")) {
+                        while (resultado.next()) {
+                            avisos.add(resultado.getString("Message"));
+                        }
+                    }
+                    return insertadas;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            evento.terminar(cargadas == null ? 0 : cargadas);
+            if (cargadas == null || cargadas != filas || !avisos.isEmpty()) {
+                logger.warn("LOAD DATA cargó {} de {} filas validadas con {} avisos.", cargadas, filas, avisos.size());
+            }
+            agregarAvisos(avisos, errores);
+            return cargadas == null ? 0 : cargadas;
+        }
+
+        // Traduce la fila del archivo temporal que indica cada aviso a la línea
+        // del CSV, leída del último campo de esa fila
+        private void agregarAvisos(List<String> avisos, List<String> errores) throws IOException {
+            Map<Long, String> porFila = new TreeMap<>();
+            for (String aviso : avisos) {
+                Matcher fila = FILA_AVISO.matcher(aviso);
+                if (fila.find()) {
+                    porFila.merge(Long.valueOf(fila.group(1)), aviso, (a, b) -> a + "; " + b);
+                } else if (errores.size() < ERRORES_MAXIMOS) {
+                    errores.add("LOAD DATA: " + aviso);
+                }
+            }
+            if (porFila.isEmpty()) {
+                return;
+            }
+            try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+                long numero = 0;
+                String fila;
+                while ((fila = lector.readLine()) != null && !porFila.isEmpty()) {
+                    String aviso = porFila.remove(++numero);
+                    if (aviso != null && errores.size() < ERRORES_MAXIMOS) {
+                        errores.add("Línea " + fila.substring(fila.lastIndexOf('\t') + 1) + ": " + aviso);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            escritor.close();
+            Files.deleteIfExists(archivo);
+        }
+
+    }
+
+    // Otras bases de datos (p. ej. embebidas en pruebas): INSERT de varias filas por lote
+    private final class DestinoInsertMultiple implements DestinoCarga {
+
+        private final List<Object> parametros = new ArrayList<>();
+        private int pendientes;
+        private long filas;
+
+        @Override
+        public void agregar(Empleado empleado, LocalDateTime ahora, long linea) {
+            Collections.addAll(parametros, valores(empleado, ahora));
+            if (++pendientes == tamanoLote) {
+                escribir();
+            }
+        }
+
+        private void escribir() {
+            if (pendientes == 0) {
+                return;
+            }
+            String fila = "(" + String.join(", ", Collections.nCopies(NUMERO_COLUMNAS, "?")) + ")";
+            String sql = "INSERT INTO empleado (" + COLUMNAS + ") VALUES "
+                    + String.join(", ", Collections.nCopies(pendientes, fila));
+            EventoLote evento = EventoLote.iniciar("csv.insert");
+            int insertadas = jdbcTemplate.update(sql, parametros.toArray());
+            evento.terminar(insertadas);
+            filas += insertadas;
+            parametros.clear();
+            pendientes = 0;
+        }
+
+        @Override
+        public long terminar(List<String> errores) {
+            escribir();
+            return filas;
+        }
+
+        @Override
+        public void close() {
+            parametros.clear();
+        }
+
+    }
+
+    private Empleado convertir(EmpleadoDTO dto, long fila) {
+        try {
+            return EmpleadoMapper.aEmpleado(dto, catalogos);
+        } catch (InvalidDateFormatException e) {
+            throw new InvalidDateFormatException("Fila " + fila + ": " + e.getMessage(), e);
+        } catch (InvalidCatalogValueException e) {
+            throw new InvalidCatalogValueException("Fila " + fila + ": " + e.getMessage());
+        }
+    }
+
+    private Empleado validar(Empleado empleado, long fila) {
+        Set<ConstraintViolation<Empleado>> violaciones = validator.validate(empleado);
+        if (!violaciones.isEmpty()) {
+            throw new ConstraintViolationException("Empleado inválido en la fila " + fila, violaciones);
+        }
+        return empleado;
+    }
+
+    // Escribir el lote y vaciar el contexto de persistencia para no retener entidades
+    private int guardarLote(List<Empleado> lote) {
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        EventoLote evento = EventoLote.iniciar("flujo");
+        empleadoRepository.saveAll(lote);
+        entityManager.flush();
+        entityManager.clear();
+        int guardados = lote.size();
+        evento.terminar(guardados);
+        lote.clear();
+        return guardados;
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.heriberto.invex.services;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.heriberto.invex.catalogo.Catalogo;
+import com.heriberto.invex.catalogo.Catalogos;
+import com.heriberto.invex.entities.EntradaCatalogo;
+import com.heriberto.invex.repositories.CatalogoRepository;
+import com.heriberto.invex.repositories.PuestoRepository;
+import com.heriberto.invex.repositories.SexoRepository;
+
+/**
+ * Carga completa de los catálogos de puesto y sexo en memoria. Los catálogos
+ * se administran en la base de datos: la aplicación no da de alta valores y
+ * rechaza los que no conoce. Se releen periódicamente, lo que recoge los
+ * valores nuevos y reintenta la carga si la base de datos no estaba disponible
+ * al arrancar.
+ */
+@Service
+public class CatalogoServiceImpl implements CatalogoService {
+
+    @Autowired
+    private PuestoRepository puestoRepository;
+
+    @Autowired
+    private SexoRepository sexoRepository;
+
+    @Autowired
+    private Catalogos catalogos;
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogoServiceImpl.class);
+
+    // Un fallo al arrancar no impide levantar la aplicación; se reintenta en la
+    // siguiente recarga programada
+    @PostConstruct
+    public void iniciar() {
+        recargarProgramado();
+    }
+
+    @Scheduled(fixedDelayString = "${invex.catalogo.recarga-ms:60000}",
+            initialDelayString = "${invex.catalogo.recarga-ms:60000}")
+    public void recargarProgramado() {
+        try {
+            recargar();
+        } catch (RuntimeException e) {
+            logger.error("No se pudieron cargar los catálogos; se reintentará en la siguiente recarga", e);
+        }
+    }
+
+    // Leer de nuevo ambos catálogos completos
+    @Override
+    public void recargar() {
+        cargar(catalogos.getPuestos(), puestoRepository);
+        cargar(catalogos.getSexos(), sexoRepository);
+        logger.info("Catálogos cargados: {} puestos, {} sexos.", catalogos.getPuestos().tamano(),
+                catalogos.getSexos().tamano());
+    }
+
+    private static void cargar(Catalogo catalogo, CatalogoRepository<? extends EntradaCatalogo> repositorio) {
+        Map<Integer, String> entradas = new HashMap<>();
+        for (EntradaCatalogo entrada : repositorio.findAll()) {
+            entradas.put(entrada.getId(), entrada.getNombre());
+        }
+        catalogo.cargar(entradas);
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.heriberto.invex.services;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import com.heriberto.invex.catalogo.Catalogo;
+import com.heriberto.invex.catalogo.Catalogos;
+import com.heriberto.invex.entities.Empleado;
+import com.heriberto.invex.entities.EmpleadoDTO;
+import com.heriberto.invex.exceptions.InvalidCatalogValueException;
+import com.heriberto.invex.exceptions.InvalidDateFormatException;
+
+/**
+ * Conversión entre {@link EmpleadoDTO} y {@link Empleado}, compartida por la
+ * inserción, la actualización y las cargas masivas. El puesto y el sexo deben
+ * existir en su catálogo; un valor desconocido se rechaza en lugar de darlo de
+ * alta, para no escribir en los catálogos desde las peticiones (ver README).
+ */
+public final class EmpleadoMapper {
+
+    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private EmpleadoMapper() {
+
+    }
+
+    // Crear un empleado nuevo a partir del DTO
+    public static Empleado aEmpleado(EmpleadoDTO dto, Catalogos catalogos) {
+        Empleado empleado = new Empleado();
+        empleado.setPrimer_nombre(dto.getPrimer_nombre());
+        empleado.setSegundo_nombre(dto.getSegundo_nombre());
+        empleado.setApellido_paterno(dto.getApellido_paterno());
+        empleado.setApellido_materno(dto.getApellido_materno());
+        empleado.setEdad(dto.getEdad());
+        empleado.setSexo(enCatalogo(catalogos.getSexos(), dto.getSexo()));
+        // Una fecha ausente se deja nula para que la rechace la validación (@NotNull)
+        if (dto.getFecha_nacimiento() != null) {
+            empleado.setFecha_nacimiento(aFecha(dto.getFecha_nacimiento()));
+        }
+        empleado.setPuesto(enCatalogo(catalogos.getPuestos(), dto.getPuesto()));
+        return empleado;
+    }
+
+    // Copiar sobre el empleado solo los campos informados en el DTO
+    public static void aplicarCambios(Empleado empleado, EmpleadoDTO empleadoDTO, Catalogos catalogos) {
+        if (empleadoDTO.getPrimer_nombre() != null)
+            empleado.setPrimer_nombre(empleadoDTO.getPrimer_nombre());
+        if (empleadoDTO.getSegundo_nombre() != null)
+            empleado.setSegundo_nombre(empleadoDTO.getSegundo_nombre());
+        if (empleadoDTO.getApellido_paterno() != null)
+            empleado.setApellido_paterno(empleadoDTO.getApellido_paterno());
+        if (empleadoDTO.getApellido_materno() != null)
+            empleado.setApellido_materno(empleadoDTO.getApellido_materno());
+        if (empleadoDTO.getEdad() != null)
+            empleado.setEdad(empleadoDTO.getEdad());
+        if (empleadoDTO.getSexo() != null)
+            empleado.setSexo(enCatalogo(catalogos.getSexos(), empleadoDTO.getSexo()));
+        if (empleadoDTO.getFecha_nacimiento() != null)
+            empleado.setFecha_nacimiento(aFecha(empleadoDTO.getFecha_nacimiento()));
+        if (empleadoDTO.getPuesto() != null)
+            empleado.setPuesto(enCatalogo(catalogos.getPuestos(), empleadoDTO.getPuesto()));
+    }
+
+    // Parsear la fecha de String a LocalDate
+    public static LocalDate aFecha(String fecha) {
+        try {
+            return LocalDate.parse(fecha, formatter);
+        } catch (DateTimeParseException e) {
+            // Manejo del error en caso de que el String no siga el formato esperado
+            throw new InvalidDateFormatException(
+                    "Formato de fecha inválido: " + fecha + ". El formato esperado es dd-MM-yyyy.", e);
+        }
+    }
+
+    // Instancia compartida del catálogo; un valor ausente se deja nulo para que
+    // lo rechace la validación (@NotNull)
+    private static String enCatalogo(Catalogo catalogo, String valor) {
+        if (valor == null) {
+            return null;
+        }
+        String canonico = catalogo.canonico(valor);
+        if (canonico == null) {
+            throw new InvalidCatalogValueException(
+                    "El " + catalogo.getNombre() + " '" + valor + "' no existe en el catálogo.");
+        }
+        return canonico;
+    }
+
+}
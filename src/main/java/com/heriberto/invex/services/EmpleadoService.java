@@ -3,18 +3,32 @@ package com.heriberto.invex.services;
 import java.util.List;
 
 import com.heriberto.invex.entities.Empleado;
+import com.heriberto.invex.entities.EmpleadoCambiosDTO;
 import com.heriberto.invex.entities.EmpleadoDTO;
+import com.heriberto.invex.entities.ResultadoInsercionDTO;
+
+import reactor.core.publisher.Flux;
 
 public interface EmpleadoService {
 
     List<Empleado> findAll();
 
+    List<Empleado> findAllIncluyendoArchivo();
+
+    Flux<Empleado> streamEmpleados();
+
     Empleado findById(Long id);
 
+    Empleado findByIdIncluyendoArchivo(Long id);
+
     void delete(Long id);
 
     Empleado actualizarEmpleado(Long id, EmpleadoDTO empleadoDTO);
 
     List<Empleado> insertarEmpleados (List<EmpleadoDTO> empleadosDTO);
 
+    ResultadoInsercionDTO insertarEmpleadosMinimo(List<EmpleadoDTO> empleadosDTO, boolean conIds);
+
+    EmpleadoCambiosDTO obtenerCambios(String token);
+
 }
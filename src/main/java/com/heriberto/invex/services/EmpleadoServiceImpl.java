@@ -1,33 +1,85 @@
 package com.heriberto.invex.services;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.heriberto.invex.catalogo.Catalogos;
 import com.heriberto.invex.entities.Empleado;
+import com.heriberto.invex.entities.EmpleadoCambiosDTO;
 import com.heriberto.invex.entities.EmpleadoDTO;
+import com.heriberto.invex.entities.EmpleadoEliminado;
+import com.heriberto.invex.entities.ResultadoInsercionDTO;
+import com.heriberto.invex.events.EmpleadoEvent;
 import com.heriberto.invex.exceptions.IdNotFound;
 import com.heriberto.invex.exceptions.DatabaseException;
-import com.heriberto.invex.exceptions.InvalidDateFormatException;
+import com.heriberto.invex.repositories.EmpleadoEliminadoRepository;
 import com.heriberto.invex.repositories.EmpleadoRepository;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Schedulers;
+
 @Service
 public class EmpleadoServiceImpl implements EmpleadoService {
 @Autowired
     private EmpleadoRepository empleadoRepository;
 
-    private static final Logger logger = LoggerFactory.getLogger(EmpleadoServiceImpl.class);
+    @Autowired
+    private EmpleadoEliminadoRepository empleadoEliminadoRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EscrituraDiferidaService escrituraDiferida;
+
+    @Autowired
+    private IngestaParalela ingestaParalela;
+
+    @Autowired
+    private Catalogos catalogos;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${invex.stream.tamano-pagina:500}")
+    private int tamanoPagina = 500;
+
+    @Value("${invex.carga.tamano-lote:500}")
+    private int tamanoLote = 500;
+
+    // Margen que se relee antes del token: cubre las transacciones que
+    // confirman después de que se leyera una marca de tiempo más reciente
+    @Value("${invex.cambios.ventana-ms:60000}")
+    private long ventanaMs = 60000;
 
+    @PersistenceContext
+    private EntityManager entityManager;
 
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final Logger logger = LoggerFactory.getLogger(EmpleadoServiceImpl.class);
 
     // Obtener todos los empleados
     @Override
@@ -44,65 +96,113 @@ public class EmpleadoServiceImpl implements EmpleadoService {
         }
     }
 
+    // Obtener todos los empleados, activos y dados de baja
+    @Override
+    @Transactional(readOnly = true)
+    public List<Empleado> findAllIncluyendoArchivo() {
+        try {
+            List<Empleado> empleados = empleadoRepository.findAllConArchivo();
+            logger.info("Se han obtenido {} empleados incluyendo el archivo.", empleados.size());
+            return empleados;
+
+        } catch (Exception e) {
+            logger.error("Error al obtener empleados incluyendo el archivo", e);
+            throw new DatabaseException("Error al obtener la lista de empleados", e);
+        }
+    }
+
+    // Recorrer todos los empleados bajo demanda del consumidor
+    @Override
+    public Flux<Empleado> streamEmpleados() {
+        // Cada página se consulta solo cuando el consumidor ha procesado la
+        // anterior, así un cliente lento retiene como mucho dos páginas en memoria
+        // y ningún hilo queda bloqueado esperando su demanda
+        Flux<List<Empleado>> paginas = Flux.generate(() -> 0L,
+                (Long ultimoId, SynchronousSink<List<Empleado>> sink) -> {
+            List<Empleado> pagina = empleadoRepository.findPaginaDesde(ultimoId, PageRequest.of(0, tamanoPagina));
+            if (pagina.isEmpty()) {
+                sink.complete();
+                return ultimoId;
+            }
+            sink.next(pagina);
+            if (pagina.size() < tamanoPagina) {
+                sink.complete();
+            }
+            return pagina.get(pagina.size() - 1).getId();
+        });
+        return paginas.concatMapIterable(pagina -> pagina, 1)
+                .doOnError(e -> logger.error("Error al recorrer los empleados", e))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
     // Obtener empleado por ID
     @Override
     @Transactional(readOnly = true)
     public Empleado findById(Long id) {
-        return empleadoRepository.findById(id)
+        // Con escritura diferida, los cambios aún no escritos tienen prioridad
+        if (escrituraDiferida.isHabilitada()) {
+            Optional<Empleado> pendiente = escrituraDiferida.pendiente(id);
+            if (pendiente.isPresent()) {
+                return pendiente.get();
+            }
+        }
+        return buscarActivo(id)
                 .orElseThrow(() -> {
                     logger.error("Empleado no encontrado con el id: {}", id);
                     return new IdNotFound("Empleado no encontrado con el id: " + id);
                 });
     }
 
+    // Obtener empleado por ID aunque esté dado de baja o archivado
+    @Override
+    @Transactional(readOnly = true)
+    public Empleado findByIdIncluyendoArchivo(Long id) {
+        return empleadoRepository.findByIdConArchivo(id)
+                .orElseThrow(() -> new IdNotFound("Empleado no encontrado con el id: " + id));
+    }
+
     // Eliminar empleados por ID
     @Override
     @Transactional
     public void delete(Long id) {
-        if (empleadoRepository.existsById(id)) {
-            empleadoRepository.deleteById(id);
-        } else {
-            throw new IdNotFound("Empleado no encontrado con el id: " + id);
-        }
+        // Se carga el empleado para que los oyentes conozcan los valores eliminados
+        Empleado empleado = buscarActivo(id)
+                .orElseThrow(() -> new IdNotFound("Empleado no encontrado con el id: " + id));
+        escrituraDiferida.descartar(id);
+        // Baja lógica: la fila deja de verse y el archivado la mueve más tarde
+        empleado.setFecha_baja(LocalDateTime.now());
+        empleadoRepository.save(empleado);
+        // Registrar la marca de borrado para la sincronización incremental
+        empleadoEliminadoRepository.save(new EmpleadoEliminado(id, LocalDateTime.now()));
+        eventPublisher.publishEvent(EmpleadoEvent.baja(empleado));
     }
 
     // Actualizar datos del empleado por ID
     @Override
-    @Transactional
     public Empleado actualizarEmpleado(Long id, EmpleadoDTO empleadoDTO) {
+        // Con escritura diferida, el cambio se combina en memoria y se escribe en
+        // lote; no se abre transacción para no tomar una conexión del pool
+        if (escrituraDiferida.isHabilitada()) {
+            return escrituraDiferida.registrar(id, empleadoDTO);
+        }
+        return new TransactionTemplate(transactionManager)
+                .execute(estado -> actualizarEnBaseDeDatos(id, empleadoDTO));
+    }
+
+    private Empleado actualizarEnBaseDeDatos(Long id, EmpleadoDTO empleadoDTO) {
         // Buscar si el empleado existe
-        Empleado empleado = empleadoRepository.findById(id)
+        Empleado empleado = buscarActivo(id)
                 .orElseThrow(() -> new IdNotFound("Empleado no encontrado con el id: " + id));
 
-        // Actualizar los campos con los datos recibidos del DTO
-        if (empleadoDTO.getPrimer_nombre() != null)
-            empleado.setPrimer_nombre(empleadoDTO.getPrimer_nombre());
-        if (empleadoDTO.getSegundo_nombre() != null)
-            empleado.setSegundo_nombre(empleadoDTO.getSegundo_nombre());
-        if (empleadoDTO.getApellido_paterno() != null)
-            empleado.setApellido_paterno(empleadoDTO.getApellido_paterno());
-        if (empleadoDTO.getApellido_materno() != null)
-            empleado.setApellido_materno(empleadoDTO.getApellido_materno());
-        if (empleadoDTO.getEdad() != null)
-            empleado.setEdad(empleadoDTO.getEdad());
-        if (empleadoDTO.getSexo() != null)
-            empleado.setSexo(empleadoDTO.getSexo());
-        if (empleadoDTO.getFecha_nacimiento() != null) {
-            try {
-                LocalDate fechaNacimiento = LocalDate.parse(empleadoDTO.getFecha_nacimiento(), formatter);
-                empleado.setFecha_nacimiento(fechaNacimiento); // Ahora pasamos el LocalDate
-            } catch (DateTimeParseException e) {
-                // Manejo del error en caso de que el String no siga el formato esperado
-                throw new InvalidDateFormatException("Formato de fecha inválido: " + empleadoDTO.getFecha_nacimiento()
-                        + ". El formato esperado es dd-MM-yyyy.", e);
-            }
+        Empleado anterior = new Empleado(empleado);
 
-        }
-        if (empleadoDTO.getPuesto() != null)
-            empleado.setPuesto(empleadoDTO.getPuesto());
+        // Actualizar los campos con los datos recibidos del DTO
+        EmpleadoMapper.aplicarCambios(empleado, empleadoDTO, catalogos);
 
         // Guardar los cambios en la base de datos
-        return empleadoRepository.save(empleado);
+        Empleado empleadoGuardado = empleadoRepository.save(empleado);
+        eventPublisher.publishEvent(EmpleadoEvent.modificacion(anterior, empleadoGuardado));
+        return empleadoGuardado;
     }
 
     // Insertar nuevos empleados
@@ -114,34 +214,138 @@ public class EmpleadoServiceImpl implements EmpleadoService {
             throw new IllegalArgumentException("La lista de empleados no puede estar vacía");
         }
 
-        // Convertir los DTO a entidades Empleado
-        List<Empleado> empleados = empleadosDTO.stream().map(dto -> {
-            Empleado empleado = new Empleado();
-            empleado.setPrimer_nombre(dto.getPrimer_nombre());
-            empleado.setSegundo_nombre(dto.getSegundo_nombre());
-            empleado.setApellido_paterno(dto.getApellido_paterno());
-            empleado.setApellido_materno(dto.getApellido_materno());
-            empleado.setEdad(dto.getEdad());
-            empleado.setSexo(dto.getSexo());
-            try {
-                // Parsear la fecha de String a LocalDate
-                LocalDate fechaNacimiento = LocalDate.parse(dto.getFecha_nacimiento(), formatter);
-                empleado.setFecha_nacimiento(fechaNacimiento);
-            } catch (DateTimeParseException e) {
-                // Manejo del error en caso de que el String no siga el formato esperado
-                throw new InvalidDateFormatException("El formato esperado es dd-MM-yyyy.", e);
-            }
-            empleado.setPuesto(dto.getPuesto());
-            return empleado;
-        }).collect(Collectors.toList());
-
-        // Guardar los empleados en la base de datos
-        List<Empleado> empleadosGuardados = empleadoRepository.saveAll(empleados);
+        // Convertir los DTO a entidades Empleado en paralelo y guardar cada bloque
+        // mientras se convierte el siguiente
+        List<Empleado> empleadosGuardados = new ArrayList<>(empleadosDTO.size());
+        ingestaParalela.procesar(empleadosDTO, bloque -> empleadosGuardados.addAll(empleadoRepository.saveAll(bloque)));
+        eventPublisher.publishEvent(EmpleadoEvent.altas(empleadosGuardados));
 
         // Retornar los empleados guardados
         return empleadosGuardados;
 }
 
-    
+    // Insertar nuevos empleados devolviendo solo los ids generados o el total
+    @Override
+    @Transactional
+    public ResultadoInsercionDTO insertarEmpleadosMinimo(List<EmpleadoDTO> empleadosDTO, boolean conIds) {
+        if (empleadosDTO == null || empleadosDTO.isEmpty()) {
+            logger.warn("Intento de insertar una lista vacía de empleados");
+            throw new IllegalArgumentException("La lista de empleados no puede estar vacía");
+        }
+
+        long[] ids = conIds ? new long[empleadosDTO.size()] : null;
+
+        // Un solo lote: mismo camino que la inserción completa
+        if (empleadosDTO.size() <= tamanoLote) {
+            List<Empleado> empleados = empleadosDTO.stream()
+                    .map(dto -> EmpleadoMapper.aEmpleado(dto, catalogos))
+                    .collect(Collectors.toList());
+            List<Empleado> empleadosGuardados = empleadoRepository.saveAll(empleados);
+            copiarIds(empleadosGuardados, ids, 0);
+            eventPublisher.publishEvent(EmpleadoEvent.altas(empleadosGuardados));
+            return ids != null ? ResultadoInsercionDTO.deIds(ids)
+                    : ResultadoInsercionDTO.deTotal(empleadosGuardados.size());
+        }
+
+        // Varios lotes: las entidades se liberan tras cada lote, así la memoria
+        // depende del tamaño del lote y no del de la petición
+        int[] guardados = { 0 };
+        ingestaParalela.procesar(empleadosDTO, bloque -> {
+            for (int desde = 0; desde < bloque.size(); desde += tamanoLote) {
+                List<Empleado> lote = bloque.subList(desde, Math.min(bloque.size(), desde + tamanoLote));
+                guardados[0] += guardarLote(lote, ids, guardados[0]);
+            }
+        });
+
+        // Retener los lotes en el evento hasta el commit anularía la liberación de
+        // memoria: se publica una sola carga masiva, como en las cargas por flujo
+        eventPublisher.publishEvent(EmpleadoEvent.cargaMasiva(guardados[0]));
+        return ids != null ? ResultadoInsercionDTO.deIds(ids) : ResultadoInsercionDTO.deTotal(guardados[0]);
+    }
+
+    private int guardarLote(List<Empleado> lote, long[] ids, int desde) {
+        List<Empleado> empleadosGuardados = empleadoRepository.saveAll(lote);
+        copiarIds(empleadosGuardados, ids, desde);
+        entityManager.flush();
+        entityManager.clear();
+        return empleadosGuardados.size();
+    }
+
+    private static void copiarIds(List<Empleado> empleados, long[] ids, int desde) {
+        if (ids == null) {
+            return;
+        }
+        for (int i = 0; i < empleados.size(); i++) {
+            ids[desde + i] = empleados.get(i).getId();
+        }
+    }
+
+    // Obtener los cambios posteriores a un token de sincronización
+    @Override
+    @Transactional(readOnly = true)
+    public EmpleadoCambiosDTO obtenerCambios(String token) {
+        LocalDateTime ahora = LocalDateTime.now();
+
+        // Sin token se devuelve el conjunto completo para una sincronización inicial
+        if (token == null || token.trim().isEmpty()) {
+            List<Empleado> empleados = empleadoRepository.findAll();
+            return new EmpleadoCambiosDTO(empleados, Collections.emptyList(), aToken(ahora));
+        }
+
+        // updated_at se asigna antes del commit: una transacción larga puede
+        // confirmar filas con una marca anterior al token ya entregado. Se relee
+        // la ventana previa al token; el cliente aplica los cambios por id, así
+        // que recibir de nuevo un cambio ya visto no tiene efecto
+        LocalDateTime desde = desdeToken(token);
+        LocalDateTime consulta = desde.minus(ventanaMs, ChronoUnit.MILLIS);
+        List<Empleado> modificados = empleadoRepository.findModificadosDesde(consulta);
+        List<EmpleadoEliminado> eliminados = empleadoEliminadoRepository.findEliminadosDesde(consulta);
+
+        // El siguiente token es la marca más reciente devuelta; los cambios con esa
+        // misma marca se vuelven a incluir (el filtro es inclusivo) para no perder
+        // filas escritas en el mismo instante
+        LocalDateTime siguiente = desde;
+        for (Empleado empleado : modificados) {
+            if (empleado.getUpdated_at() != null && empleado.getUpdated_at().isAfter(siguiente)) {
+                siguiente = empleado.getUpdated_at();
+            }
+        }
+        for (EmpleadoEliminado eliminado : eliminados) {
+            if (eliminado.getDeleted_at().isAfter(siguiente)) {
+                siguiente = eliminado.getDeleted_at();
+            }
+        }
+
+        // Cada id aparece una vez; si se modificó y después se eliminó dentro de
+        // la ventana, solo cuenta la baja
+        Set<Long> idsEliminados = eliminados.stream()
+                .map(EmpleadoEliminado::getEmpleado_id)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        List<Empleado> vigentes = modificados.stream()
+                .filter(empleado -> !idsEliminados.contains(empleado.getId()))
+                .collect(Collectors.toList());
+        logger.info("Sincronización desde {}: {} modificados, {} eliminados.", desde, vigentes.size(),
+                idsEliminados.size());
+        return new EmpleadoCambiosDTO(vigentes, new ArrayList<>(idsEliminados), aToken(siguiente));
+    }
+
+    // Los empleados dados de baja se tratan como inexistentes
+    private Optional<Empleado> buscarActivo(Long id) {
+        return empleadoRepository.findById(id).filter(empleado -> empleado.getFecha_baja() == null);
+    }
+
+    // El token es la marca de tiempo en milisegundos desde epoch
+    private static String aToken(LocalDateTime fecha) {
+        return String.valueOf(fecha.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private static LocalDateTime desdeToken(String token) {
+        try {
+            long milisegundos = Long.parseLong(token.trim());
+            return Instant.ofEpochMilli(milisegundos).atZone(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Token de sincronización inválido: " + token, e);
+        }
+    }
 
 }
\ No newline at end of file
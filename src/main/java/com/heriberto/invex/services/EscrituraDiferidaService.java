@@ -0,0 +1,20 @@
+package com.heriberto.invex.services;
+
+import java.util.Optional;
+
+import com.heriberto.invex.entities.Empleado;
+import com.heriberto.invex.entities.EmpleadoDTO;
+
+public interface EscrituraDiferidaService {
+
+    boolean isHabilitada();
+
+    Empleado registrar(Long id, EmpleadoDTO empleadoDTO);
+
+    Optional<Empleado> pendiente(Long id);
+
+    void descartar(Long id);
+
+    int vaciar();
+
+}
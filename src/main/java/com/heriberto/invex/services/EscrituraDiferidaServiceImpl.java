@@ -0,0 +1,253 @@
+package com.heriberto.invex.services;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.heriberto.invex.catalogo.Catalogos;
+import com.heriberto.invex.entities.Empleado;
+import com.heriberto.invex.entities.EmpleadoDTO;
+import com.heriberto.invex.events.EmpleadoEvent;
+import com.heriberto.invex.exceptions.IdNotFound;
+import com.heriberto.invex.perfilado.EventoLote;
+import com.heriberto.invex.repositories.EmpleadoRepository;
+
+/**
+ * Escritura diferida de las actualizaciones de empleados. Las actualizaciones
+ * se acumulan en memoria por id, se combinan campo a campo y se escriben como
+ * un lote de UPDATE cada cierto intervalo o al superar el máximo de
+ * pendientes. {@code findById} consulta primero este búfer; los listados leen
+ * la base de datos y pueden ir un intervalo por detrás.
+ * <p>
+ * {@code updated_at} se asigna al escribir el lote y no al registrar el
+ * cambio: la sincronización incremental lo compara con el momento en que la
+ * fila es visible en la base de datos.
+ */
+@Service
+public class EscrituraDiferidaServiceImpl implements EscrituraDiferidaService {
+
+    @Autowired
+    private EmpleadoRepository empleadoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Catalogos catalogos;
+
+    @Value("${invex.escritura-diferida.habilitada:false}")
+    private boolean habilitada = false;
+
+    @Value("${invex.escritura-diferida.maximo-pendientes:1000}")
+    private int maximoPendientes = 1000;
+
+    private static final Logger logger = LoggerFactory.getLogger(EscrituraDiferidaServiceImpl.class);
+
+    private static final String SQL_ACTUALIZAR = "UPDATE empleado SET primer_nombre = ?, segundo_nombre = ?, "
+            + "apellido_paterno = ?, apellido_materno = ?, edad = ?, sexo_id = ?, fecha_nacimiento = ?, puesto_id = ?, "
+            + "updated_at = ? WHERE id = ? AND fecha_baja IS NULL";
+
+    // Cambios aún no escritos y cambios que se están escribiendo en este momento;
+    // una entrada pasa a "en vuelo" antes de salir de "pendientes" para que las
+    // lecturas la vean siempre en alguno de los dos
+    private final ConcurrentHashMap<Long, Pendiente> pendientes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Pendiente> enVuelo = new ConcurrentHashMap<>();
+
+    private final ReentrantLock vaciado = new ReentrantLock();
+
+    @Override
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    // Combinar la actualización con lo pendiente para el mismo empleado
+    @Override
+    public Empleado registrar(Long id, EmpleadoDTO empleadoDTO) {
+        Pendiente inicial = pendientes.containsKey(id) ? null : base(id);
+        Pendiente pendiente = pendientes.compute(id, (clave, existente) -> {
+            Pendiente anterior = existente != null ? existente : inicial != null ? inicial : base(id);
+            Empleado siguiente = new Empleado(anterior.actual);
+            // Si la fecha es inválida se lanza la excepción sin tocar el búfer
+            EmpleadoMapper.aplicarCambios(siguiente, empleadoDTO, catalogos);
+            return new Pendiente(anterior.original, siguiente, anterior.cambios + 1);
+        });
+
+        if (pendientes.size() >= maximoPendientes) {
+            vaciar();
+        }
+        return new Empleado(pendiente.actual);
+    }
+
+    // Estado pendiente de un empleado, si lo hay
+    @Override
+    public Optional<Empleado> pendiente(Long id) {
+        Pendiente pendiente = pendientes.get(id);
+        if (pendiente == null) {
+            pendiente = enVuelo.get(id);
+        }
+        return pendiente == null ? Optional.empty() : Optional.of(new Empleado(pendiente.actual));
+    }
+
+    // Olvidar los cambios de un empleado que se va a eliminar
+    @Override
+    public void descartar(Long id) {
+        pendientes.remove(id);
+    }
+
+    // Escribir todos los cambios pendientes en un solo lote
+    @Override
+    @Scheduled(fixedDelayString = "${invex.escritura-diferida.intervalo-ms:200}")
+    public int vaciar() {
+        if (pendientes.isEmpty()) {
+            return 0;
+        }
+        vaciado.lock();
+        try {
+            List<Pendiente> lote = new ArrayList<>(pendientes.size());
+            for (Long id : pendientes.keySet()) {
+                pendientes.computeIfPresent(id, (clave, pendiente) -> {
+                    enVuelo.put(clave, pendiente);
+                    lote.add(pendiente);
+                    return null;
+                });
+            }
+            if (lote.isEmpty()) {
+                return 0;
+            }
+
+            try {
+                int escritos = escribir(lote);
+                logger.info("Escritura diferida: {} actualizaciones combinadas en {} UPDATE.",
+                        lote.stream().mapToInt(pendiente -> pendiente.cambios).sum(), escritos);
+                return escritos;
+            } catch (RuntimeException e) {
+                logger.error("Error al escribir {} empleados pendientes; se reintentará", lote.size(), e);
+                for (Pendiente pendiente : lote) {
+                    reencolar(pendiente);
+                }
+                return 0;
+            } finally {
+                for (Pendiente pendiente : lote) {
+                    enVuelo.remove(pendiente.actual.getId(), pendiente);
+                }
+            }
+        } finally {
+            vaciado.unlock();
+        }
+    }
+
+    // Al apagar la aplicación no se pierde lo que quede en el búfer
+    @PreDestroy
+    public void detener() {
+        if (!pendientes.isEmpty()) {
+            logger.info("Escribiendo {} empleados pendientes antes de apagar.", pendientes.size());
+            vaciar();
+        }
+        if (!pendientes.isEmpty()) {
+            logger.error("{} actualizaciones de empleados no pudieron escribirse al apagar.", pendientes.size());
+        }
+    }
+
+    private int escribir(List<Pendiente> lote) {
+        // Se marca una copia: el estado del búfer puede estar leyéndose y, si
+        // la escritura falla, el reintento vuelve a marcarlo
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Empleado> escritos = new ArrayList<>(lote.size());
+        List<Object[]> parametros = new ArrayList<>(lote.size());
+        for (Pendiente pendiente : lote) {
+            Empleado empleado = new Empleado(pendiente.actual);
+            empleado.setUpdated_at(ahora);
+            escritos.add(empleado);
+            parametros.add(new Object[] { empleado.getPrimer_nombre(), empleado.getSegundo_nombre(),
+                    empleado.getApellido_paterno(), empleado.getApellido_materno(), empleado.getEdad(),
+                    catalogos.getSexos().clave(empleado.getSexo()), Date.valueOf(empleado.getFecha_nacimiento()),
+                    catalogos.getPuestos().clave(empleado.getPuesto()), Timestamp.valueOf(ahora),
+                    empleado.getId() });
+        }
+
+        // Transacción propia: el vaciado por tamaño ocurre dentro de la
+        // transacción de una petición y no debe depender de ella
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        EventoLote evento = EventoLote.iniciar("escritura-diferida");
+        Integer total = transaccion.execute(estado -> {
+            int[] filas = jdbcTemplate.batchUpdate(SQL_ACTUALIZAR, parametros);
+            int actualizados = 0;
+            for (int i = 0; i < lote.size(); i++) {
+                Pendiente pendiente = lote.get(i);
+                if (i < filas.length && filas[i] == 0) {
+                    logger.warn("El empleado {} ya no existe; se descartan sus cambios pendientes.",
+                            pendiente.actual.getId());
+                    continue;
+                }
+                actualizados++;
+                // Los oyentes se ejecutan tras confirmar la transacción
+                eventPublisher.publishEvent(EmpleadoEvent.modificacion(pendiente.original, escritos.get(i)));
+            }
+            return actualizados;
+        });
+        evento.terminar(total == null ? 0 : total);
+        return total == null ? 0 : total;
+    }
+
+    // Devolver al búfer un lote que no se pudo escribir sin pisar cambios más nuevos
+    private void reencolar(Pendiente fallido) {
+        pendientes.compute(fallido.actual.getId(), (clave, existente) -> existente == null ? fallido
+                : new Pendiente(fallido.original, existente.actual, fallido.cambios + existente.cambios));
+    }
+
+    // Punto de partida para combinar: lo que se está escribiendo o la base de datos
+    private Pendiente base(Long id) {
+        Pendiente escribiendose = enVuelo.get(id);
+        if (escribiendose != null) {
+            return new Pendiente(escribiendose.actual, escribiendose.actual, 0);
+        }
+        Empleado empleado = empleadoRepository.findById(id)
+                .filter(activo -> activo.getFecha_baja() == null)
+                .orElseThrow(() -> new IdNotFound("Empleado no encontrado con el id: " + id));
+        Empleado copia = new Empleado(empleado);
+        return new Pendiente(copia, copia, 0);
+    }
+
+    // Estado inmutable de un empleado en el búfer
+    private static final class Pendiente {
+
+        // Valores en la base de datos antes del primer cambio acumulado
+        private final Empleado original;
+        private final Empleado actual;
+        private final int cambios;
+
+        Pendiente(Empleado original, Empleado actual, int cambios) {
+            this.original = original;
+            this.actual = actual;
+            this.cambios = cambios;
+        }
+
+    }
+
+}
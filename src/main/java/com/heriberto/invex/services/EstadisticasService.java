@@ -0,0 +1,15 @@
+package com.heriberto.invex.services;
+
+import com.heriberto.invex.entities.EstadisticasDTO;
+
+public interface EstadisticasService {
+
+    EstadisticasDTO obtenerEstadisticas();
+
+    void recargar();
+
+    long contarEmpleados();
+
+    void reconciliarTotal();
+
+}
@@ -0,0 +1,312 @@
+package com.heriberto.invex.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.heriberto.invex.entities.Empleado;
+import com.heriberto.invex.entities.EstadisticasDTO;
+import com.heriberto.invex.events.EmpleadoEvent;
+import com.heriberto.invex.exceptions.DatabaseException;
+import com.heriberto.invex.repositories.EmpleadoRepository;
+
+/**
+ * Estadísticas de la plantilla mantenidas en memoria.
+ * 
+ * Los contadores se cargan con consultas GROUP BY al arrancar y después se
+ * actualizan con los eventos de escritura del servicio de empleados, por lo
+ * que consultarlos no depende del tamaño de la tabla. El total se reconcilia
+ * periódicamente con COUNT(*) para corregir desviaciones de escrituras que no
+ * pasan por los eventos.
+ * 
+ * Tras una carga masiva, o si la base de datos no estaba disponible al
+ * arrancar, el recálculo se hace en segundo plano con la tarea programada; las
+ * cargas que llegan mientras tanto se agrupan en un solo recálculo. Los
+ * cambios recibidos durante las consultas se aplican a los contadores
+ * vigentes y se corrigen sobre los nuevos antes de sustituirlos: como no se
+ * sabe si la instantánea ya los incluye, las filas afectadas se releen en la
+ * misma transacción y su aportación se sustituye por el estado final de cada
+ * empleado. Los eventos posteriores a esa lectura se repiten como deltas.
+ */
+@Service
+public class EstadisticasServiceImpl implements EstadisticasService {
+
+    @Autowired
+    private EmpleadoRepository empleadoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static final Logger logger = LoggerFactory.getLogger(EstadisticasServiceImpl.class);
+
+    private volatile Contadores contadores = new Contadores();
+
+    // Un recálculo a la vez; mientras dura, los eventos se anotan en "durante"
+    private final ReentrantLock recalculo = new ReentrantLock();
+    private final Object cambios = new Object();
+    private List<EmpleadoEvent> durante;
+
+    private final AtomicBoolean recargaPendiente = new AtomicBoolean();
+
+    // Obtener las estadísticas actuales
+    @Override
+    public EstadisticasDTO obtenerEstadisticas() {
+        Contadores actuales = contadores;
+        Map<String, Long> porRangoEdad = new TreeMap<>();
+        actuales.porEdad.forEach((edad, cantidad) -> {
+            long valor = cantidad.sum();
+            if (valor > 0) {
+                int inicio = edad / 10 * 10;
+                porRangoEdad.merge(inicio + "-" + (inicio + 9), valor, Long::sum);
+            }
+        });
+        return new EstadisticasDTO(actuales.total.sum(), instantanea(actuales.porPuesto),
+                instantanea(actuales.porSexo), porRangoEdad);
+    }
+
+    // Carga inicial; si la base de datos no responde, la aplicación arranca
+    // igualmente y la tarea programada reintenta
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        try {
+            recargar();
+        } catch (DatabaseException e) {
+            recargaPendiente.set(true);
+        }
+    }
+
+    // Recálculo pendiente por una carga masiva o por un fallo anterior
+    @Scheduled(fixedDelayString = "${invex.estadisticas.recarga-ms:5000}")
+    public void recargarPendiente() {
+        if (recargaPendiente.getAndSet(false)) {
+            try {
+                recargar();
+            } catch (DatabaseException e) {
+                recargaPendiente.set(true);
+            }
+        }
+    }
+
+    // Recalcular los contadores con consultas agrupadas
+    @Override
+    public void recargar() {
+        recalculo.lock();
+        try {
+            synchronized (cambios) {
+                durante = new ArrayList<>();
+            }
+            Lectura lectura;
+            try {
+                lectura = consultar();
+            } catch (Exception e) {
+                synchronized (cambios) {
+                    durante = null;
+                }
+                logger.error("Error al recalcular las estadísticas de empleados", e);
+                throw new DatabaseException("Error al recalcular las estadísticas de empleados", e);
+            }
+            Contadores nuevos = lectura.contadores;
+            synchronized (cambios) {
+                corregir(lectura, durante);
+                durante = null;
+                contadores = nuevos;
+            }
+            logger.info("Estadísticas recalculadas: {} empleados.", nuevos.total.sum());
+        } finally {
+            recalculo.unlock();
+        }
+    }
+
+    // Las consultas leen la misma versión de la tabla; al final se releen en
+    // ella las filas de los eventos recibidos hasta ese momento
+    private Lectura consultar() {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setReadOnly(true);
+        return transaccion.execute(estado -> {
+            Contadores nuevos = new Contadores();
+            for (Object[] fila : empleadoRepository.contarPorPuesto()) {
+                sumar(nuevos.porPuesto, (String) fila[0], ((Number) fila[1]).longValue());
+            }
+            for (Object[] fila : empleadoRepository.contarPorSexo()) {
+                sumar(nuevos.porSexo, (String) fila[0], ((Number) fila[1]).longValue());
+            }
+            for (Object[] fila : empleadoRepository.contarPorEdad()) {
+                sumar(nuevos.porEdad, (Integer) fila[0], ((Number) fila[1]).longValue());
+            }
+            nuevos.total.add(empleadoRepository.count());
+
+            int cubiertos;
+            Set<Long> ids = new LinkedHashSet<>();
+            synchronized (cambios) {
+                cubiertos = durante.size();
+                for (int i = 0; i < cubiertos; i++) {
+                    durante.get(i).getEmpleados().forEach(empleado -> ids.add(empleado.getId()));
+                }
+            }
+            Map<Long, Empleado> vistos = new HashMap<>();
+            if (!ids.isEmpty()) {
+                for (Empleado empleado : empleadoRepository.findAllById(ids)) {
+                    vistos.put(empleado.getId(), new Empleado(empleado));
+                }
+            }
+            return new Lectura(nuevos, vistos, ids, cubiertos);
+        });
+    }
+
+    // Sustituir la aportación de las filas releídas por el estado que dejan los
+    // eventos cubiertos, y repetir como deltas los que llegaron después
+    private static void corregir(Lectura lectura, List<EmpleadoEvent> eventos) {
+        Map<Long, Empleado> finales = new HashMap<>();
+        for (int i = 0; i < lectura.cubiertos; i++) {
+            EmpleadoEvent evento = eventos.get(i);
+            boolean baja = evento.getTipo() == EmpleadoEvent.Tipo.BAJA;
+            evento.getEmpleados().forEach(empleado -> finales.put(empleado.getId(), baja ? null : empleado));
+        }
+        for (Long id : lectura.ids) {
+            Empleado visto = lectura.vistos.get(id);
+            Empleado fin = finales.get(id);
+            if (visto != null) {
+                lectura.contadores.aplicar(visto, -1);
+            }
+            if (fin != null) {
+                lectura.contadores.aplicar(fin, 1);
+            }
+        }
+        for (int i = lectura.cubiertos; i < eventos.size(); i++) {
+            aplicar(eventos.get(i), lectura.contadores);
+        }
+    }
+
+    // Obtener el total de empleados activos sin consultar la tabla
+    @Override
+    public long contarEmpleados() {
+        return contadores.total.sum();
+    }
+
+    // Corregir el total con COUNT(*) si se ha desviado
+    @Override
+    @Scheduled(initialDelayString = "${invex.conteo.reconciliacion-ms:300000}",
+            fixedDelayString = "${invex.conteo.reconciliacion-ms:300000}")
+    public void reconciliarTotal() {
+        try {
+            Contadores actuales = contadores;
+            long real = empleadoRepository.count();
+            long diferencia = real - actuales.total.sum();
+            if (diferencia != 0) {
+                actuales.total.add(diferencia);
+                logger.warn("Total de empleados reconciliado con COUNT(*): desviación de {}.", diferencia);
+            }
+        } catch (Exception e) {
+            logger.error("Error al reconciliar el total de empleados", e);
+        }
+    }
+
+    // Aplicar los cambios una vez confirmada la transacción
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarEmpleados(EmpleadoEvent evento) {
+        if (evento.getTipo() == EmpleadoEvent.Tipo.CARGA_MASIVA) {
+            // El total se ajusta ya; los grupos no se recalculan en el hilo de
+            // la petición. No se anota para repetirlo: el recálculo pendiente
+            // ya leerá estas filas
+            contadores.total.add(evento.getFilas());
+            recargaPendiente.set(true);
+            return;
+        }
+        synchronized (cambios) {
+            aplicar(evento, contadores);
+            if (durante != null) {
+                durante.add(evento);
+            }
+        }
+    }
+
+    boolean isRecargaPendiente() {
+        return recargaPendiente.get();
+    }
+
+    private static void aplicar(EmpleadoEvent evento, Contadores destino) {
+        switch (evento.getTipo()) {
+            case ALTA:
+                evento.getEmpleados().forEach(empleado -> destino.aplicar(empleado, 1));
+                break;
+            case MODIFICACION:
+                destino.aplicar(evento.getAnterior(), -1);
+                destino.aplicar(evento.getEmpleados().get(0), 1);
+                break;
+            case BAJA:
+                evento.getEmpleados().forEach(empleado -> destino.aplicar(empleado, -1));
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static <K> void sumar(Map<K, LongAdder> mapa, K clave, long cantidad) {
+        if (clave != null) {
+            mapa.computeIfAbsent(clave, k -> new LongAdder()).add(cantidad);
+        }
+    }
+
+    private static Map<String, Long> instantanea(Map<String, LongAdder> mapa) {
+        Map<String, Long> resultado = new TreeMap<>();
+        mapa.forEach((clave, cantidad) -> {
+            long valor = cantidad.sum();
+            if (valor > 0) {
+                resultado.put(clave, valor);
+            }
+        });
+        return resultado;
+    }
+
+    private static final class Lectura {
+
+        private final Contadores contadores;
+        private final Map<Long, Empleado> vistos;
+        private final Set<Long> ids;
+        private final int cubiertos;
+
+        Lectura(Contadores contadores, Map<Long, Empleado> vistos, Set<Long> ids, int cubiertos) {
+            this.contadores = contadores;
+            this.vistos = vistos;
+            this.ids = ids;
+            this.cubiertos = cubiertos;
+        }
+
+    }
+
+    private static final class Contadores {
+
+        private final LongAdder total = new LongAdder();
+        private final Map<String, LongAdder> porPuesto = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> porSexo = new ConcurrentHashMap<>();
+        private final Map<Integer, LongAdder> porEdad = new ConcurrentHashMap<>();
+
+        void aplicar(Empleado empleado, int signo) {
+            total.add(signo);
+            sumar(porPuesto, empleado.getPuesto(), signo);
+            sumar(porSexo, empleado.getSexo(), signo);
+            sumar(porEdad, empleado.getEdad(), signo);
+        }
+
+    }
+
+}
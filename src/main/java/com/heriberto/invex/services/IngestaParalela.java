@@ -0,0 +1,173 @@
+package com.heriberto.invex.services;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.annotation.PreDestroy;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.heriberto.invex.catalogo.Catalogos;
+import com.heriberto.invex.entities.Empleado;
+import com.heriberto.invex.entities.EmpleadoDTO;
+import com.heriberto.invex.entities.MetricasIngestaDTO;
+import com.heriberto.invex.perfilado.EventoLote;
+
+/**
+ * Conversión y escritura solapadas de inserciones masivas.
+ * 
+ * Los DTO se dividen en bloques que se convierten y validan (Bean Validation
+ * sobre la entidad) en paralelo en un ForkJoinPool propio, mientras el hilo
+ * de la petición escribe el bloque
+ * anterior. Como mucho hay {@code profundidad} bloques convertidos o en
+ * conversión por delante de la escritura, así la memoria extra está acotada.
+ * La escritura siempre ocurre en el hilo que llama, dentro de su transacción.
+ */
+@Component
+public class IngestaParalela {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestaParalela.class);
+
+    private final ForkJoinPool pool;
+    private final int tamanoBloque;
+    private final int profundidad;
+    private final Catalogos catalogos;
+    private final Validator validator;
+
+    private final LongAdder ejecuciones = new LongAdder();
+    private final LongAdder filas = new LongAdder();
+    private final LongAdder nanosConversion = new LongAdder();
+    private final LongAdder nanosEscritura = new LongAdder();
+    private final LongAdder nanosTotal = new LongAdder();
+
+    public IngestaParalela(
+            @Value("${invex.ingesta.paralelismo:0}") int paralelismo,
+            @Value("${invex.ingesta.tamano-bloque:500}") int tamanoBloque,
+            @Value("${invex.ingesta.profundidad:2}") int profundidad,
+            Catalogos catalogos, Validator validator) {
+        this.pool = new ForkJoinPool(paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors());
+        this.tamanoBloque = Math.max(1, tamanoBloque);
+        this.profundidad = Math.max(1, profundidad);
+        this.catalogos = catalogos;
+        this.validator = validator;
+    }
+
+    /**
+     * Convertir los DTO por bloques y entregar cada bloque, en orden, al
+     * escritor. Un error de validación o conversión se relanza en el hilo que
+     * llama y cancela los bloques pendientes.
+     * 
+     * @param empleadosDTO Los empleados recibidos.
+     * @param escribir     Escritura de un bloque de entidades ya convertidas.
+     * @return El número de empleados entregados al escritor.
+     */
+    public int procesar(List<EmpleadoDTO> empleadosDTO, Consumer<List<Empleado>> escribir) {
+        long inicio = System.nanoTime();
+        int bloques = (empleadosDTO.size() + tamanoBloque - 1) / tamanoBloque;
+        int siguiente = 0;
+        int entregados = 0;
+        long escritura = 0;
+        Deque<CompletableFuture<List<Empleado>>> enCurso = new ArrayDeque<>(profundidad);
+        try {
+            while (siguiente < bloques && enCurso.size() < profundidad) {
+                enCurso.add(convertir(empleadosDTO, siguiente++));
+            }
+            while (!enCurso.isEmpty()) {
+                List<Empleado> bloque = esperar(enCurso.poll());
+                // El siguiente bloque se convierte mientras se escribe este
+                if (siguiente < bloques) {
+                    enCurso.add(convertir(empleadosDTO, siguiente++));
+                }
+                long inicioEscritura = System.nanoTime();
+                EventoLote evento = EventoLote.iniciar("ingesta.escritura");
+                escribir.accept(bloque);
+                evento.terminar(bloque.size());
+                escritura += System.nanoTime() - inicioEscritura;
+                entregados += bloque.size();
+            }
+        } finally {
+            for (CompletableFuture<List<Empleado>> pendiente : enCurso) {
+                pendiente.cancel(true);
+            }
+        }
+
+        long total = System.nanoTime() - inicio;
+        ejecuciones.increment();
+        filas.add(entregados);
+        nanosEscritura.add(escritura);
+        nanosTotal.add(total);
+        logger.info("Ingesta de {} empleados en {} bloques: {} ms totales, {} ms escribiendo.", entregados, bloques,
+                TimeUnit.NANOSECONDS.toMillis(total), TimeUnit.NANOSECONDS.toMillis(escritura));
+        return entregados;
+    }
+
+    public MetricasIngestaDTO getMetricas() {
+        return new MetricasIngestaDTO(pool.getParallelism(), ejecuciones.sum(), filas.sum(),
+                TimeUnit.NANOSECONDS.toMillis(nanosConversion.sum()),
+                TimeUnit.NANOSECONDS.toMillis(nanosEscritura.sum()),
+                TimeUnit.NANOSECONDS.toMillis(nanosTotal.sum()));
+    }
+
+    @PreDestroy
+    public void detener() {
+        pool.shutdown();
+    }
+
+    // El parallelStream dentro de una tarea del pool se reparte en ese mismo
+    // pool; CompletableFuture entrega la excepción original de la conversión
+    private CompletableFuture<List<Empleado>> convertir(List<EmpleadoDTO> empleadosDTO, int bloque) {
+        int desde = bloque * tamanoBloque;
+        int hasta = Math.min(empleadosDTO.size(), desde + tamanoBloque);
+        return CompletableFuture.supplyAsync(() -> {
+            long inicio = System.nanoTime();
+            EventoLote evento = EventoLote.iniciar("ingesta.conversion");
+            List<Empleado> empleados = IntStream.range(desde, hasta).parallel()
+                    .mapToObj(fila -> validar(EmpleadoMapper.aEmpleado(empleadosDTO.get(fila), catalogos), fila + 1))
+                    .collect(Collectors.toList());
+            evento.terminar(empleados.size());
+            nanosConversion.add(System.nanoTime() - inicio);
+            return empleados;
+        }, pool);
+    }
+
+    // La validación al persistir se repite en el escritor; aquí se adelanta
+    // para que ocurra en paralelo y el lote se rechace antes de escribirlo
+    private Empleado validar(Empleado empleado, int fila) {
+        Set<ConstraintViolation<Empleado>> violaciones = validator.validate(empleado);
+        if (!violaciones.isEmpty()) {
+            throw new ConstraintViolationException("Empleado inválido en la fila " + fila, violaciones);
+        }
+        return empleado;
+    }
+
+    private static List<Empleado> esperar(CompletableFuture<List<Empleado>> bloque) {
+        try {
+            return bloque.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Error al convertir un bloque de empleados", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ingesta interrumpida", e);
+        }
+    }
+
+}
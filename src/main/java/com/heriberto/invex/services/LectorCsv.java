@@ -0,0 +1,139 @@
+package com.heriberto.invex.services;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de CSV (RFC 4180) que devuelve una fila a la vez: admite campos entre
+ * comillas con comas, comillas dobles escapadas y saltos de línea.
+ * 
+ * Cada campo se limita a {@code maximoCampo} caracteres para que un archivo
+ * malformado no se acumule entero en memoria: un campo sin comillas más largo
+ * rechaza su línea, y uno entre comillas se trata como comillas sin cerrar.
+ */
+public class LectorCsv {
+
+    private static final int SIN_CARACTER = -2;
+
+    // Muy por encima de cualquier columna de empleado
+    static final int MAXIMO_CAMPO = 1024;
+
+    private final Reader entrada;
+    private final int maximoCampo;
+    private long lineasLeidas;
+    private long lineaFila;
+    private int pendiente = SIN_CARACTER;
+    private boolean agotado;
+
+    public LectorCsv(Reader entrada) {
+        this(entrada, MAXIMO_CAMPO);
+    }
+
+    public LectorCsv(Reader entrada, int maximoCampo) {
+        this.entrada = entrada;
+        this.maximoCampo = maximoCampo;
+    }
+
+    // Línea del archivo en la que empieza la última fila leída
+    public long getLinea() {
+        return lineaFila;
+    }
+
+    /**
+     * Lee la siguiente fila.
+     * 
+     * @return Los campos de la fila, o null al llegar al final del archivo.
+     * @throws IllegalArgumentException Si un campo supera el máximo de
+     *                                  caracteres, o si la fila abre comillas
+     *                                  que no se cierran; en ese caso el resto
+     *                                  del archivo queda dentro de ella, no se
+     *                                  sigue leyendo y la siguiente lectura
+     *                                  devuelve null.
+     */
+    public List<String> siguienteFila() throws IOException {
+        if (agotado) {
+            return null;
+        }
+        int c = leer();
+        if (c == -1) {
+            return null;
+        }
+        lineaFila = ++lineasLeidas;
+
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        while (true) {
+            if (entreComillas) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Comillas sin cerrar");
+                }
+                if (c == '"') {
+                    int d = leer();
+                    if (d != '"') {
+                        // Fin del campo entre comillas: d se procesa como carácter normal
+                        entreComillas = false;
+                        c = d;
+                        continue;
+                    }
+                }
+                if (c == '\n') {
+                    lineasLeidas++;
+                }
+                if (campo.length() >= maximoCampo) {
+                    agotado = true;
+                    throw new IllegalArgumentException(
+                            "Comillas sin cerrar: el campo supera " + maximoCampo + " caracteres");
+                }
+                campo.append((char) c);
+            } else if (c == '"' && campo.length() == 0) {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int d = leer();
+                    if (d != '\n') {
+                        pendiente = d;
+                    }
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else {
+                if (campo.length() >= maximoCampo) {
+                    descartarLinea();
+                    throw new IllegalArgumentException("El campo supera " + maximoCampo + " caracteres");
+                }
+                campo.append((char) c);
+            }
+            c = leer();
+        }
+    }
+
+    // Consumir el resto de la línea sin guardarlo
+    private void descartarLinea() throws IOException {
+        int c = leer();
+        while (c != '\n' && c != '\r' && c != -1) {
+            c = leer();
+        }
+        if (c == '\r') {
+            int d = leer();
+            if (d != '\n') {
+                pendiente = d;
+            }
+        }
+    }
+
+    private int leer() throws IOException {
+        if (pendiente != SIN_CARACTER) {
+            int c = pendiente;
+            pendiente = SIN_CARACTER;
+            return c;
+        }
+        return entrada.read();
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.heriberto.invex.services;
+
+import com.heriberto.invex.entities.SnapshotDTO;
+
+public interface SnapshotService {
+
+    SnapshotDTO exportarSnapshot();
+
+}
@@ -0,0 +1,88 @@
+package com.heriberto.invex.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.heriberto.invex.entities.Empleado;
+import com.heriberto.invex.entities.SnapshotDTO;
+import com.heriberto.invex.repositories.EmpleadoRepository;
+import com.heriberto.invex.snapshot.EmpleadoSnapshotWriter;
+
+@Service
+public class SnapshotServiceImpl implements SnapshotService {
+
+    @Autowired
+    private EmpleadoRepository empleadoRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${invex.snapshot.directorio:snapshots}")
+    private String directorio;
+
+    @Value("${invex.snapshot.tamano-pagina:1000}")
+    private int tamanoPagina = 1000;
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotServiceImpl.class);
+
+    private static final DateTimeFormatter formatoArchivo = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    // Exportar la tabla de empleados a un archivo columnar
+    @Override
+    @Transactional(readOnly = true)
+    public SnapshotDTO exportarSnapshot() {
+        EmpleadoSnapshotWriter writer = new EmpleadoSnapshotWriter();
+        // Paginación por clave: el contexto de persistencia se vacía tras cada
+        // página, así solo el escritor columnar crece con la tabla
+        long ultimoId = 0L;
+        List<Empleado> pagina;
+        do {
+            pagina = empleadoRepository.findPaginaDesde(ultimoId, PageRequest.of(0, tamanoPagina));
+            pagina.forEach(writer::agregar);
+            if (!pagina.isEmpty()) {
+                ultimoId = pagina.get(pagina.size() - 1).getId();
+            }
+            entityManager.clear();
+        } while (pagina.size() == tamanoPagina);
+
+        Path carpeta = Paths.get(directorio);
+        Path destino = carpeta.resolve("empleados-" + LocalDateTime.now().format(formatoArchivo) + ".snap");
+        try {
+            Files.createDirectories(carpeta);
+            // Se escribe en un temporal y se mueve para que los lectores nunca vean un archivo a medias
+            Path temporal = Files.createTempFile(carpeta, "empleados-", ".tmp");
+            long bytes;
+            try {
+                bytes = writer.escribir(temporal);
+                Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                // Tras el movimiento ya no existe; si algo falló no se deja en la carpeta
+                Files.deleteIfExists(temporal);
+            }
+            logger.info("Snapshot de {} empleados exportado a {} ({} bytes).", writer.getFilas(), destino, bytes);
+            return new SnapshotDTO(destino.toAbsolutePath().toString(), writer.getFilas(), bytes);
+        } catch (IOException e) {
+            logger.error("Error al exportar el snapshot de empleados", e);
+            throw new UncheckedIOException("Error al exportar el snapshot de empleados", e);
+        }
+    }
+
+}
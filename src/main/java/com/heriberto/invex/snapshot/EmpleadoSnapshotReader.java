@@ -0,0 +1,229 @@
+package com.heriberto.invex.snapshot;
+
+import static com.heriberto.invex.snapshot.FormatoSnapshot.*;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * Lee un snapshot columnar de empleados mapeado en memoria.
+ * 
+ * Cada columna se expone como una vista sobre el archivo, de modo que un
+ * recorrido por una sola columna (por ejemplo, la edad) no lee ni
+ * deserializa el resto de la fila.
+ */
+public class EmpleadoSnapshotReader implements Closeable {
+
+    private final FileChannel canal;
+    private final MappedByteBuffer buffer;
+    private final int filas;
+    private final long[] offsets = new long[COLUMNAS];
+    private final long[] longitudes = new long[COLUMNAS];
+
+    private EmpleadoSnapshotReader(FileChannel canal) throws IOException {
+        this.canal = canal;
+        this.buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        this.buffer.order(ORDEN);
+
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("El archivo no es un snapshot de empleados");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Versión de snapshot no soportada: " + version);
+        }
+        this.filas = buffer.getInt(8);
+        int columnas = buffer.getInt(12);
+        if (columnas != COLUMNAS) {
+            throw new IOException("Número de columnas inesperado: " + columnas);
+        }
+        for (int c = 0; c < COLUMNAS; c++) {
+            offsets[c] = buffer.getLong(16 + c * 16);
+            longitudes[c] = buffer.getLong(24 + c * 16);
+        }
+    }
+
+    public static EmpleadoSnapshotReader abrir(Path archivo) throws IOException {
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        try {
+            return new EmpleadoSnapshotReader(canal);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    public int getFilas() {
+        return filas;
+    }
+
+    public LongBuffer ids() {
+        return region(offsets[COLUMNA_ID], longitudes[COLUMNA_ID]).asLongBuffer();
+    }
+
+    /**
+     * Edades por fila; {@link Integer#MIN_VALUE} indica un valor ausente.
+     */
+    public IntBuffer edades() {
+        return region(offsets[COLUMNA_EDAD], longitudes[COLUMNA_EDAD]).asIntBuffer();
+    }
+
+    /**
+     * Fechas de nacimiento por fila en días desde epoch;
+     * {@link Integer#MIN_VALUE} indica un valor ausente.
+     */
+    public IntBuffer fechasNacimiento() {
+        return region(offsets[COLUMNA_FECHA_NACIMIENTO], longitudes[COLUMNA_FECHA_NACIMIENTO]).asIntBuffer();
+    }
+
+    public LocalDate fechaNacimiento(int fila) {
+        int dias = buffer.getInt((int) offsets[COLUMNA_FECHA_NACIMIENTO] + 4 * fila);
+        return dias == NULO_ENTERO ? null : LocalDate.ofEpochDay(dias);
+    }
+
+    public Diccionario puestos() {
+        return new Diccionario(region(offsets[COLUMNA_PUESTO], longitudes[COLUMNA_PUESTO]), filas);
+    }
+
+    public Diccionario sexos() {
+        return new Diccionario(region(offsets[COLUMNA_SEXO], longitudes[COLUMNA_SEXO]), filas);
+    }
+
+    public Texto primerNombre() {
+        return texto(COLUMNA_PRIMER_NOMBRE);
+    }
+
+    public Texto segundoNombre() {
+        return texto(COLUMNA_SEGUNDO_NOMBRE);
+    }
+
+    public Texto apellidoPaterno() {
+        return texto(COLUMNA_APELLIDO_PATERNO);
+    }
+
+    public Texto apellidoMaterno() {
+        return texto(COLUMNA_APELLIDO_MATERNO);
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    private Texto texto(int columna) {
+        return new Texto(region(offsets[columna], longitudes[columna]), filas);
+    }
+
+    private ByteBuffer region(long offset, long longitud) {
+        ByteBuffer copia = buffer.duplicate();
+        ((Buffer) copia).position((int) offset);
+        ((Buffer) copia).limit((int) (offset + longitud));
+        return copia.slice().order(ORDEN);
+    }
+
+    private static String decodificar(ByteBuffer datos, int inicio, int fin) {
+        byte[] utf8 = new byte[fin - inicio];
+        for (int i = 0; i < utf8.length; i++) {
+            utf8[i] = datos.get(inicio + i);
+        }
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Columna codificada con diccionario (puesto, sexo). Los códigos permiten
+     * agrupar y contar sin decodificar las cadenas.
+     */
+    public static final class Diccionario {
+
+        private final String[] valores;
+        private final IntBuffer codigos;
+
+        private Diccionario(ByteBuffer region, int filas) {
+            int entradas = region.getInt(0);
+            int inicioBytes = 4 + 4 * (entradas + 1);
+            valores = new String[entradas];
+            for (int i = 0; i < entradas; i++) {
+                int desde = region.getInt(4 + 4 * i);
+                int hasta = region.getInt(4 + 4 * (i + 1));
+                valores[i] = decodificar(region, inicioBytes + desde, inicioBytes + hasta);
+            }
+            int finDiccionario = inicioBytes + region.getInt(4 + 4 * entradas);
+            ((Buffer) region).position((int) alinear(finDiccionario));
+            codigos = region.slice().order(ORDEN).asIntBuffer();
+            ((Buffer) codigos).limit(filas);
+        }
+
+        public int getEntradas() {
+            return valores.length;
+        }
+
+        public String valor(int codigo) {
+            return codigo == CODIGO_NULO ? null : valores[codigo];
+        }
+
+        /**
+         * Códigos por fila; -1 indica un valor ausente.
+         */
+        public IntBuffer codigos() {
+            return codigos.duplicate();
+        }
+
+        public String valorFila(int fila) {
+            return valor(codigos.get(fila));
+        }
+
+    }
+
+    /**
+     * Columna de texto indexada por offsets.
+     */
+    public static final class Texto {
+
+        private final ByteBuffer region;
+        private final int filas;
+        private final int inicioOffsets;
+        private final int inicioBytes;
+
+        private Texto(ByteBuffer region, int filas) {
+            this.region = region;
+            this.filas = filas;
+            this.inicioOffsets = (filas + 7) / 8;
+            this.inicioBytes = inicioOffsets + 4 * (filas + 1);
+        }
+
+        public boolean esNulo(int fila) {
+            return (region.get(fila >>> 3) & (1 << (fila & 7))) != 0;
+        }
+
+        /**
+         * Longitud en bytes UTF-8 del valor, sin decodificarlo.
+         */
+        public int longitud(int fila) {
+            return region.getInt(inicioOffsets + 4 * (fila + 1)) - region.getInt(inicioOffsets + 4 * fila);
+        }
+
+        public String valor(int fila) {
+            if (fila < 0 || fila >= filas) {
+                throw new IndexOutOfBoundsException("Fila fuera de rango: " + fila);
+            }
+            if (esNulo(fila)) {
+                return null;
+            }
+            int desde = region.getInt(inicioOffsets + 4 * fila);
+            int hasta = region.getInt(inicioOffsets + 4 * (fila + 1));
+            return decodificar(region, inicioBytes + desde, inicioBytes + hasta);
+        }
+
+    }
+
+}
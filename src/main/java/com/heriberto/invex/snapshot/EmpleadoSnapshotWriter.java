@@ -0,0 +1,224 @@
+package com.heriberto.invex.snapshot;
+
+import static com.heriberto.invex.snapshot.FormatoSnapshot.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.heriberto.invex.entities.Empleado;
+
+/**
+ * Acumula empleados en columnas primitivas y las escribe en un archivo
+ * columnar mediante un {@link MappedByteBuffer}. El formato se describe en
+ * {@link FormatoSnapshot}.
+ */
+public class EmpleadoSnapshotWriter {
+
+    private int filas;
+    private long[] ids = new long[1024];
+    private int[] edades = new int[1024];
+    private int[] fechas = new int[1024];
+    private final ColumnaDiccionario puestos = new ColumnaDiccionario();
+    private final ColumnaDiccionario sexos = new ColumnaDiccionario();
+    private final ColumnaTexto primerNombre = new ColumnaTexto();
+    private final ColumnaTexto segundoNombre = new ColumnaTexto();
+    private final ColumnaTexto apellidoPaterno = new ColumnaTexto();
+    private final ColumnaTexto apellidoMaterno = new ColumnaTexto();
+
+    public void agregar(Empleado empleado) {
+        if (filas == ids.length) {
+            int capacidad = filas * 2;
+            ids = Arrays.copyOf(ids, capacidad);
+            edades = Arrays.copyOf(edades, capacidad);
+            fechas = Arrays.copyOf(fechas, capacidad);
+        }
+        ids[filas] = empleado.getId() != null ? empleado.getId() : 0L;
+        edades[filas] = empleado.getEdad() != null ? empleado.getEdad() : NULO_ENTERO;
+        LocalDate fecha = empleado.getFecha_nacimiento();
+        fechas[filas] = fecha != null ? (int) fecha.toEpochDay() : NULO_ENTERO;
+        puestos.agregar(empleado.getPuesto());
+        sexos.agregar(empleado.getSexo());
+        primerNombre.agregar(empleado.getPrimer_nombre());
+        segundoNombre.agregar(empleado.getSegundo_nombre());
+        apellidoPaterno.agregar(empleado.getApellido_paterno());
+        apellidoMaterno.agregar(empleado.getApellido_materno());
+        filas++;
+    }
+
+    public int getFilas() {
+        return filas;
+    }
+
+    /**
+     * Escribe el snapshot en el archivo indicado, reemplazándolo si existe.
+     * 
+     * @param destino Ruta del archivo a generar.
+     * @return El tamaño del archivo en bytes.
+     */
+    public long escribir(Path destino) throws IOException {
+        long[] longitudes = new long[COLUMNAS];
+        longitudes[COLUMNA_ID] = 8L * filas;
+        longitudes[COLUMNA_EDAD] = 4L * filas;
+        longitudes[COLUMNA_FECHA_NACIMIENTO] = 4L * filas;
+        longitudes[COLUMNA_PUESTO] = puestos.longitud(filas);
+        longitudes[COLUMNA_SEXO] = sexos.longitud(filas);
+        longitudes[COLUMNA_PRIMER_NOMBRE] = primerNombre.longitud(filas);
+        longitudes[COLUMNA_SEGUNDO_NOMBRE] = segundoNombre.longitud(filas);
+        longitudes[COLUMNA_APELLIDO_PATERNO] = apellidoPaterno.longitud(filas);
+        longitudes[COLUMNA_APELLIDO_MATERNO] = apellidoMaterno.longitud(filas);
+
+        long[] offsets = new long[COLUMNAS];
+        long posicion = alinear(TAMANO_CABECERA);
+        for (int c = 0; c < COLUMNAS; c++) {
+            offsets[c] = posicion;
+            posicion = alinear(posicion + longitudes[c]);
+        }
+        long tamano = posicion;
+        if (tamano > Integer.MAX_VALUE) {
+            throw new IOException("El snapshot excede el tamaño máximo de 2 GB: " + tamano + " bytes");
+        }
+
+        try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamano);
+            buffer.order(ORDEN);
+
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(filas);
+            buffer.putInt(COLUMNAS);
+            for (int c = 0; c < COLUMNAS; c++) {
+                buffer.putLong(offsets[c]);
+                buffer.putLong(longitudes[c]);
+            }
+
+            posicionar(buffer, offsets[COLUMNA_ID]);
+            buffer.asLongBuffer().put(ids, 0, filas);
+            posicionar(buffer, offsets[COLUMNA_EDAD]);
+            buffer.asIntBuffer().put(edades, 0, filas);
+            posicionar(buffer, offsets[COLUMNA_FECHA_NACIMIENTO]);
+            buffer.asIntBuffer().put(fechas, 0, filas);
+            posicionar(buffer, offsets[COLUMNA_PUESTO]);
+            puestos.escribir(buffer, filas);
+            posicionar(buffer, offsets[COLUMNA_SEXO]);
+            sexos.escribir(buffer, filas);
+            posicionar(buffer, offsets[COLUMNA_PRIMER_NOMBRE]);
+            primerNombre.escribir(buffer, filas);
+            posicionar(buffer, offsets[COLUMNA_SEGUNDO_NOMBRE]);
+            segundoNombre.escribir(buffer, filas);
+            posicionar(buffer, offsets[COLUMNA_APELLIDO_PATERNO]);
+            apellidoPaterno.escribir(buffer, filas);
+            posicionar(buffer, offsets[COLUMNA_APELLIDO_MATERNO]);
+            apellidoMaterno.escribir(buffer, filas);
+
+            buffer.force();
+        }
+        return tamano;
+    }
+
+    // Se usa Buffer para mantener compatibilidad binaria con Java 8
+    private static void posicionar(MappedByteBuffer buffer, long posicion) {
+        ((Buffer) buffer).position((int) posicion);
+    }
+
+    private static void escribirCadenas(MappedByteBuffer buffer, int[] offsets, int cantidad, byte[] bytes,
+            int longitudBytes) {
+        int posicion = buffer.position();
+        buffer.asIntBuffer().put(offsets, 0, cantidad + 1);
+        ((Buffer) buffer).position(posicion + 4 * (cantidad + 1));
+        buffer.put(bytes, 0, longitudBytes);
+    }
+
+    // Columna codificada con diccionario: cada valor distinto se guarda una vez
+    private static final class ColumnaDiccionario {
+
+        private final Map<String, Integer> codigos = new HashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private int[] offsetsDiccionario = new int[16];
+        private int entradas;
+        private int[] valores = new int[1024];
+        private int filas;
+
+        void agregar(String valor) {
+            if (filas == valores.length) {
+                valores = Arrays.copyOf(valores, filas * 2);
+            }
+            valores[filas++] = valor == null ? CODIGO_NULO : codigo(valor);
+        }
+
+        private int codigo(String valor) {
+            Integer codigo = codigos.get(valor);
+            if (codigo == null) {
+                codigo = entradas;
+                codigos.put(valor, codigo);
+                byte[] utf8 = valor.getBytes(StandardCharsets.UTF_8);
+                bytes.write(utf8, 0, utf8.length);
+                if (entradas + 2 > offsetsDiccionario.length) {
+                    offsetsDiccionario = Arrays.copyOf(offsetsDiccionario, offsetsDiccionario.length * 2);
+                }
+                entradas++;
+                offsetsDiccionario[entradas] = bytes.size();
+            }
+            return codigo;
+        }
+
+        long longitud(int totalFilas) {
+            return alinear(4L + 4L * (entradas + 1) + bytes.size()) + 4L * totalFilas;
+        }
+
+        void escribir(MappedByteBuffer buffer, int totalFilas) {
+            int inicio = buffer.position();
+            buffer.putInt(entradas);
+            escribirCadenas(buffer, offsetsDiccionario, entradas, bytes.toByteArray(), bytes.size());
+            ((Buffer) buffer).position((int) (inicio + alinear(4L + 4L * (entradas + 1) + bytes.size())));
+            buffer.asIntBuffer().put(valores, 0, totalFilas);
+        }
+
+    }
+
+    // Columna de texto indexada por offsets con bitmap de nulos
+    private static final class ColumnaTexto {
+
+        private final BitSet nulos = new BitSet();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private int[] offsets = new int[1025];
+        private int filas;
+
+        void agregar(String valor) {
+            if (filas + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            if (valor == null) {
+                nulos.set(filas);
+            } else {
+                byte[] utf8 = valor.getBytes(StandardCharsets.UTF_8);
+                bytes.write(utf8, 0, utf8.length);
+            }
+            filas++;
+            offsets[filas] = bytes.size();
+        }
+
+        long longitud(int totalFilas) {
+            return (totalFilas + 7) / 8 + 4L * (totalFilas + 1) + bytes.size();
+        }
+
+        void escribir(MappedByteBuffer buffer, int totalFilas) {
+            byte[] bitmap = Arrays.copyOf(nulos.toByteArray(), (totalFilas + 7) / 8);
+            buffer.put(bitmap);
+            escribirCadenas(buffer, offsets, totalFilas, bytes.toByteArray(), bytes.size());
+        }
+
+    }
+
+}
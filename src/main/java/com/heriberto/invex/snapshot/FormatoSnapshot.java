@@ -0,0 +1,51 @@
+package com.heriberto.invex.snapshot;
+
+import java.nio.ByteOrder;
+
+/**
+ * Constantes del formato columnar de snapshots de empleados.
+ * 
+ * Estructura del archivo (little endian, cada columna alineada a 8 bytes):
+ * 
+ * <pre>
+ * cabecera:   magic (int) | versión (int) | filas (int) | columnas (int)
+ * directorio: por columna, offset (long) | longitud (long)
+ * columnas:
+ *   id                 long[filas]
+ *   edad               int[filas]             (NULO_ENTERO si no hay valor)
+ *   fecha_nacimiento   int[filas] días epoch  (NULO_ENTERO si no hay valor)
+ *   puesto, sexo       diccionario: entradas (int) | offsets int[entradas + 1] | UTF-8
+ *                      seguido de códigos int[filas] (-1 si no hay valor)
+ *   nombres            bitmap de nulos byte[(filas + 7) / 8] | offsets int[filas + 1] | UTF-8
+ * </pre>
+ */
+final class FormatoSnapshot {
+
+    static final int MAGIC = 0x494E5658; // "INVX"
+    static final int VERSION = 1;
+    static final ByteOrder ORDEN = ByteOrder.LITTLE_ENDIAN;
+    static final int NULO_ENTERO = Integer.MIN_VALUE;
+    static final int CODIGO_NULO = -1;
+
+    static final int COLUMNA_ID = 0;
+    static final int COLUMNA_EDAD = 1;
+    static final int COLUMNA_FECHA_NACIMIENTO = 2;
+    static final int COLUMNA_PUESTO = 3;
+    static final int COLUMNA_SEXO = 4;
+    static final int COLUMNA_PRIMER_NOMBRE = 5;
+    static final int COLUMNA_SEGUNDO_NOMBRE = 6;
+    static final int COLUMNA_APELLIDO_PATERNO = 7;
+    static final int COLUMNA_APELLIDO_MATERNO = 8;
+    static final int COLUMNAS = 9;
+
+    static final int TAMANO_CABECERA = 16 + COLUMNAS * 16;
+
+    private FormatoSnapshot() {
+
+    }
+
+    static long alinear(long posicion) {
+        return (posicion + 7) & ~7L;
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.heriberto.invex.admision;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class CarrilEjecucionTest {
+
+    @Test
+    void testAdquirir_RechazaConColaLlena() throws Exception {
+        // Arrange
+        CarrilEjecucion carril = new CarrilEjecucion("prueba", 1, 2, 0, 10, 1000);
+
+        // Act & Assert
+        assertTrue(carril.adquirir());
+        assertTrue(carril.adquirir());
+        assertFalse(carril.adquirir());
+        assertEquals(1, carril.getRechazadas());
+    }
+
+    @Test
+    void testAdquirir_EsperaHastaLiberar() throws Exception {
+        // Arrange
+        CarrilEjecucion carril = new CarrilEjecucion("prueba", 1, 1, 1, 5000, 1000);
+        assertTrue(carril.adquirir());
+
+        // Act
+        CompletableFuture<Boolean> enCola = CompletableFuture.supplyAsync(() -> {
+            try {
+                return carril.adquirir();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+        while (carril.getEnEspera() == 0) {
+            Thread.sleep(1);
+        }
+        carril.liberar(TimeUnit.MILLISECONDS.toNanos(1));
+
+        // Assert
+        assertTrue(enCola.get(5, TimeUnit.SECONDS));
+        assertEquals(1, carril.getEnCurso());
+    }
+
+    @Test
+    void testLiberar_ReduceLimiteConLatenciaAlta() throws Exception {
+        // Arrange
+        CarrilEjecucion carril = new CarrilEjecucion("prueba", 2, 40, 0, 10, 100);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            assertTrue(carril.adquirir());
+            carril.liberar(TimeUnit.MILLISECONDS.toNanos(500));
+        }
+
+        // Assert
+        assertEquals(30, carril.getLimite());
+        assertTrue(carril.segundosReintento() >= 1);
+    }
+
+    @Test
+    void testPreHandle_Responde429ConRetryAfter() throws Exception {
+        // Arrange
+        ControlAdmisionInterceptor interceptor = new ControlAdmisionInterceptor(1, 0, 5000, 1, 0, 2000, 1, 0, 100, 1, 0, 10, false, 20, 4);
+        MockHttpServletRequest primera = new MockHttpServletRequest("POST", "/api/empleados");
+        MockHttpServletRequest segunda = new MockHttpServletRequest("POST", "/api/empleados");
+        MockHttpServletResponse respuesta = new MockHttpServletResponse();
+
+        // Act & Assert
+        assertTrue(interceptor.preHandle(primera, new MockHttpServletResponse(), null));
+        assertFalse(interceptor.preHandle(segunda, respuesta, null));
+        assertEquals(429, respuesta.getStatus());
+        assertTrue(respuesta.getHeader("Retry-After") != null);
+
+        // Los demás carriles no se ven afectados
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("GET", "/api/empleados/1"),
+                new MockHttpServletResponse(), null));
+
+        interceptor.afterCompletion(primera, new MockHttpServletResponse(), null, null);
+        assertEquals(0, interceptor.getEscrituraMasiva().getEnCurso());
+    }
+
+    @Test
+    void testClasificar() {
+        ControlAdmisionInterceptor interceptor = new ControlAdmisionInterceptor(4, 8, 5000, 8, 16, 2000, 64, 128, 100, 4, 4, 500, false, 20, 4);
+        assertSame(interceptor.getEscrituraMasiva(), interceptor.clasificar(new MockHttpServletRequest("POST", "/api/empleados")));
+        assertSame(interceptor.getListado(), interceptor.clasificar(new MockHttpServletRequest("GET", "/api/empleados")));
+        assertSame(interceptor.getListado(), interceptor.clasificar(new MockHttpServletRequest("GET", "/api/empleados/changes")));
+        assertSame(interceptor.getStream(), interceptor.clasificar(new MockHttpServletRequest("GET", "/api/empleados/stream")));
+        assertSame(interceptor.getLecturaPuntual(), interceptor.clasificar(new MockHttpServletRequest("GET", "/api/empleados/7")));
+        assertSame(interceptor.getLecturaPuntual(), interceptor.clasificar(new MockHttpServletRequest("PUT", "/api/empleados/7")));
+    }
+
+    @Test
+    void testStream_NoReduceElLimiteDeListados() throws Exception {
+        // Arrange
+        ControlAdmisionInterceptor interceptor = new ControlAdmisionInterceptor(4, 8, 5000, 8, 16, 2000, 64, 128, 100, 4, 4, 500, false, 20, 4);
+        CarrilEjecucion stream = interceptor.getStream();
+
+        // Act: streams que duran minutos
+        for (int i = 0; i < 40; i++) {
+            assertTrue(stream.adquirir());
+            stream.liberar(TimeUnit.MINUTES.toNanos(5));
+        }
+
+        // Assert
+        assertEquals(4, stream.getLimite());
+        assertEquals(8, interceptor.getListado().getLimite());
+    }
+
+    @Test
+    void testAcotar_LimitesCabenEnElPool() {
+        // Arrange
+        ControlAdmisionInterceptor interceptor = new ControlAdmisionInterceptor(4, 8, 5000, 8, 16, 2000, 64, 128, 100, 4, 4, 500, true, 20, 4);
+
+        // Act
+        int suma = interceptor.getEscrituraMasiva().getLimite() + interceptor.getListado().getLimite()
+                + interceptor.getLecturaPuntual().getLimite() + interceptor.getStream().getLimite();
+
+        // Assert
+        assertTrue(suma + interceptor.getConexionesProgramadas() <= 20);
+        assertTrue(interceptor.getLecturaPuntual().getLimite() > interceptor.getListado().getLimite());
+        assertTrue(interceptor.getStream().getLimite() >= 1);
+        assertThrows(IllegalStateException.class, () -> ControlAdmisionInterceptor.acotar(new int[] { 4, 8, 64, 4 }, 3));
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.heriberto.invex.arranque;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+
+public class InformeArranqueTest {
+
+    private List<StartupTimeline.TimelineEvent> eventos;
+
+    @BeforeEach
+    void setUp() {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+        startup.start(InformeArranque.PASO_BEAN).tag(InformeArranque.ETIQUETA_BEAN, "empleadoController").end();
+        startup.start(InformeArranque.PASO_BEAN).tag(InformeArranque.ETIQUETA_BEAN, "entityManagerFactory").end();
+        startup.start("spring.context.refresh").end();
+        eventos = startup.getBufferedTimeline().getEvents();
+    }
+
+    @Test
+    void testPorFase_AgrupaPorNombreDePaso() {
+        // Act
+        List<InformeArranque.Fase> fases = InformeArranque.porFase(eventos, 10);
+
+        // Assert
+        assertEquals(2, fases.size());
+        InformeArranque.Fase beans = fases.stream()
+                .filter(fase -> InformeArranque.PASO_BEAN.equals(fase.getNombre()))
+                .findFirst().get();
+        assertEquals(2, beans.getVeces());
+    }
+
+    @Test
+    void testPorBean_UsaElNombreDelBeanYRespetaElMaximo() {
+        // Act
+        List<InformeArranque.Fase> todos = InformeArranque.porBean(eventos, 10);
+        List<InformeArranque.Fase> uno = InformeArranque.porBean(eventos, 1);
+
+        // Assert
+        assertEquals(2, todos.size());
+        assertEquals(1, todos.stream().filter(fase -> "entityManagerFactory".equals(fase.getNombre())).count());
+        assertEquals(1, uno.size());
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.heriberto.invex.busqueda;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class IndiceTrigramasTest {
+
+    private IndiceTrigramas indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceTrigramas();
+        indice.indexar(1L, "Heriberto Reyna Castro");
+        indice.indexar(2L, "Ana Christina Reyna Castro");
+        indice.indexar(3L, "José Luis Pérez López");
+    }
+
+    @Test
+    void testBuscar_NombreParcial() {
+        long[] ids = indice.buscar("herib", 10, 0.4);
+        assertEquals(1L, ids[0]);
+    }
+
+    @Test
+    void testBuscar_ErrorDeEscritura() {
+        long[] ids = indice.buscar("Heriverto", 10, 0.4);
+        assertEquals(1, ids.length);
+        assertEquals(1L, ids[0]);
+    }
+
+    @Test
+    void testBuscar_SinAcentos() {
+        long[] ids = indice.buscar("jose perez", 10, 0.4);
+        assertEquals(3L, ids[0]);
+    }
+
+    @Test
+    void testBuscar_OrdenaPorParecido() {
+        long[] ids = indice.buscar("Reyna Castro", 10, 0.4);
+        assertEquals(2, ids.length);
+        // Mismas coincidencias: gana el documento más corto
+        assertArrayEquals(new long[] { 1L, 2L }, ids);
+    }
+
+    @Test
+    void testIndexar_ReemplazaDocumento() {
+        indice.indexar(1L, "Marcos Ruiz");
+        assertEquals(0, indice.buscar("Heriberto", 10, 0.4).length);
+        assertEquals(1L, indice.buscar("Marcos", 10, 0.4)[0]);
+        assertEquals(3, indice.getDocumentos());
+    }
+
+    @Test
+    void testEliminar() {
+        indice.eliminar(2L);
+        long[] ids = indice.buscar("Christina", 10, 0.4);
+        assertEquals(0, ids.length);
+        assertEquals(2, indice.getDocumentos());
+    }
+
+    @Test
+    void testBuscar_Limite() {
+        for (long id = 10; id < 2000; id++) {
+            indice.indexar(id, "Empleado Reyna " + id);
+        }
+        long[] ids = indice.buscar("Reyna", 5, 0.4);
+        assertEquals(5, ids.length);
+        for (long id = 10; id < 2000; id += 2) {
+            indice.eliminar(id);
+        }
+        assertEquals(998, indice.getDocumentos());
+        assertTrue(indice.buscar("Empleado", 2000, 0.4).length == 995);
+    }
+
+    @Test
+    void testBuscar_LimiteConservaElOrdenCompleto() {
+        for (long id = 10; id < 500; id++) {
+            indice.indexar(id, (id % 3 == 0 ? "Heriberto " : "Herminio ") + "Reyna " + (id % 7 == 0 ? "Castro" : "Ruiz"));
+        }
+        long[] todos = indice.buscar("Heriberto Reyna Castro", 1000, 0.4);
+        long[] primeros = indice.buscar("Heriberto Reyna Castro", 7, 0.4);
+        assertArrayEquals(Arrays.copyOf(todos, 7), primeros);
+        assertEquals(1L, primeros[0]);
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.heriberto.invex.catalogo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class CatalogoTest {
+
+    @Test
+    void testValor_DevuelveInstanciaCompartida() {
+        // Arrange
+        Catalogo catalogo = new Catalogo("puesto");
+        catalogo.cargar(Collections.singletonMap(1, "Desarrollador"));
+
+        // Act
+        String leido = catalogo.valor(1);
+        String canonico = catalogo.canonico(new String("Desarrollador"));
+
+        // Assert
+        assertSame(leido, canonico);
+        assertEquals(1, catalogo.clave("Desarrollador"));
+    }
+
+    @Test
+    void testCargar_ConflictoLanzaExcepcion() {
+        // Arrange
+        Catalogo catalogo = new Catalogo("puesto");
+        catalogo.cargar(Collections.singletonMap(1, "Desarrollador"));
+        Map<Integer, String> entradas = new HashMap<>();
+        entradas.put(1, "Desarrollador");
+        entradas.put(2, new String("Desarrollador"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> catalogo.cargar(entradas));
+        assertEquals(1, catalogo.tamano());
+        assertEquals("Desarrollador", catalogo.valor(1));
+    }
+
+    @Test
+    void testCargar_ReemplazaConservandoInstancias() {
+        // Arrange
+        Catalogo catalogo = new Catalogo("puesto");
+        Map<Integer, String> iniciales = new HashMap<>();
+        iniciales.put(1, "Desarrollador");
+        iniciales.put(2, "CEO");
+        catalogo.cargar(iniciales);
+        String compartido = catalogo.valor(1);
+        Map<Integer, String> entradas = new HashMap<>();
+        entradas.put(1, new String("Desarrollador"));
+        entradas.put(3, "Analista");
+
+        // Act
+        catalogo.cargar(entradas);
+
+        // Assert
+        assertSame(compartido, catalogo.valor(1));
+        assertEquals(3, catalogo.clave("Analista"));
+        assertNull(catalogo.canonico("CEO"));
+        assertThrows(IllegalStateException.class, () -> catalogo.clave("CEO"));
+    }
+
+    @Test
+    void testClave_SinCargar() {
+        // Arrange
+        Catalogo catalogo = new Catalogo("sexo");
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> catalogo.clave("F"));
+        assertThrows(IllegalStateException.class, () -> catalogo.canonico("F"));
+        assertThrows(IllegalStateException.class, () -> catalogo.valor(1));
+    }
+
+}
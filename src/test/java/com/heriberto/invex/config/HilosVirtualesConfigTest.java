@@ -0,0 +1,291 @@
+package com.heriberto.invex.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.heriberto.invex.admision.ControlAdmisionInterceptor;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Prueba de carga del modo de hilos virtuales: muchos clientes simultáneos
+ * sin el límite de hilos de Tomcat, sobre un pool de conexiones simulado.
+ * Las pruebas de admisión usan hilos virtuales con Java 21 y, en versiones
+ * anteriores, un ejecutor sin límite de hilos que reproduce la misma ausencia
+ * de tope. La comparación de rendimiento y latencia de cola frente al pool de
+ * hilos de plataforma de Tomcat solo se ejecuta con Java 21.
+ */
+public class HilosVirtualesConfigTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(HilosVirtualesConfigTest.class);
+    private static final int CLIENTES = 400;
+    private static final int CONEXIONES = 10;
+    private static final int PROGRAMADAS = 2;
+
+    // Comparación: maxThreads por defecto de Tomcat y peticiones que esperan
+    // E/S (respuesta al cliente, llamadas externas) sin ocupar conexión
+    private static final int HILOS_TOMCAT = 200;
+    private static final int PETICIONES_COMPARACION = 2000;
+    private static final long ESPERA_ES_MS = 20;
+
+    @Test
+    void testCarga_NingunaPeticionAdmitidaEsperaConexion() throws Exception {
+        // Arrange
+        ControlAdmisionInterceptor admision = new ControlAdmisionInterceptor(4, 8, 5000, 8, 16, 2000, 64, 128, 100, 4,
+                4, 500, true, CONEXIONES, PROGRAMADAS);
+
+        // Act
+        Resultado resultado = cargar(admision, PROGRAMADAS);
+
+        // Assert
+        logger.info("Pool acotado: {} completadas, {} rechazadas (429), máximo {} conexiones en uso.",
+                resultado.completadas, resultado.rechazadas, resultado.maximoEnUso);
+        assertEquals(0, resultado.sinConexion.get());
+        assertTrue(resultado.maximoEnUso.get() <= CONEXIONES);
+        assertTrue(resultado.completadas.get() > 0);
+        assertEquals(CLIENTES, resultado.completadas.get() + resultado.rechazadas.get());
+    }
+
+    @Test
+    void testCarga_SinAcotarLasPeticionesEsperanConexion() throws Exception {
+        // Arrange: mismos límites sin reducirlos al pool
+        ControlAdmisionInterceptor admision = new ControlAdmisionInterceptor(4, 8, 5000, 8, 16, 2000, 64, 128, 100, 4,
+                4, 500, false, CONEXIONES, PROGRAMADAS);
+
+        // Act
+        Resultado resultado = cargar(admision, PROGRAMADAS);
+
+        // Assert
+        logger.info("Pool sin acotar: {} peticiones admitidas sin conexión libre.", resultado.sinConexion);
+        assertTrue(resultado.sinConexion.get() > 0);
+    }
+
+    @Test
+    void testComparacion_HilosVirtualesFrenteAPoolDePlataforma() throws Exception {
+        // Arrange
+        assumeTrue(virtualesDisponibles(), "Los hilos virtuales requieren Java 21");
+        medir(Executors.newFixedThreadPool(HILOS_TOMCAT));
+        medir(HilosVirtualesConfig.crearEjecutorVirtual());
+
+        // Act
+        Medicion plataforma = medir(Executors.newFixedThreadPool(HILOS_TOMCAT));
+        Medicion virtuales = medir(HilosVirtualesConfig.crearEjecutorVirtual());
+
+        // Assert
+        logger.info("Pool de plataforma ({} hilos): {} peticiones/s, p99 {} ms.", HILOS_TOMCAT,
+                plataforma.porSegundo, plataforma.p99Ms);
+        logger.info("Hilos virtuales: {} peticiones/s, p99 {} ms.", virtuales.porSegundo, virtuales.p99Ms);
+        assertTrue(virtuales.porSegundo > plataforma.porSegundo);
+        assertTrue(virtuales.p99Ms < plataforma.p99Ms);
+    }
+
+    @Test
+    void testVerificarPool_CuentaLasTareasProgramadas() {
+        // Arrange: los carriles caben en el pool, pero no junto con las tareas programadas
+        ControlAdmisionInterceptor admision = new ControlAdmisionInterceptor(2, 0, 5000, 2, 0, 2000, 2, 0, 100, 2,
+                0, 500, false, CONEXIONES, 4);
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(CONEXIONES);
+        ConfigurableApplicationContext contexto = mock(ConfigurableApplicationContext.class);
+        when(contexto.getBean(DataSource.class)).thenReturn(dataSource);
+        when(contexto.getBean(ControlAdmisionInterceptor.class)).thenReturn(admision);
+        ApplicationReadyEvent evento = new ApplicationReadyEvent(mock(SpringApplication.class), new String[0],
+                contexto, null);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> new HilosVirtualesConfig().verificarPool(evento));
+    }
+
+    @Test
+    void testCerrar_TerminaElEjecutor() throws Exception {
+        // Arrange
+        HilosVirtualesConfig.EjecutorTomcat ejecutorTomcat = new HilosVirtualesConfig.EjecutorTomcat(ejecutor());
+
+        // Act
+        ejecutorTomcat.cerrar();
+
+        // Assert
+        assertTrue(ejecutorTomcat.getEjecutor().isTerminated());
+    }
+
+    // Todos los clientes salen a la vez; cada petición admitida toma una
+    // conexión sin esperar y la retiene unos milisegundos. Mientras tanto, las
+    // tareas programadas ocupan conexiones de forma continua
+    private Resultado cargar(ControlAdmisionInterceptor admision, int programadas) throws Exception {
+        Semaphore pool = new Semaphore(CONEXIONES);
+        AtomicInteger enUso = new AtomicInteger();
+        Resultado resultado = new Resultado();
+        CountDownLatch salida = new CountDownLatch(1);
+        AtomicBoolean terminado = new AtomicBoolean();
+        ExecutorService ejecutor = ejecutor();
+        List<Future<?>> peticiones = new ArrayList<>();
+        List<Future<?>> tareas = new ArrayList<>();
+        try {
+            for (int i = 0; i < programadas; i++) {
+                tareas.add(ejecutor.submit(() -> {
+                    salida.await();
+                    while (!terminado.get()) {
+                        if (!pool.tryAcquire()) {
+                            resultado.sinConexion.incrementAndGet();
+                            Thread.sleep(1);
+                            continue;
+                        }
+                        try {
+                            resultado.maximoEnUso.accumulateAndGet(enUso.incrementAndGet(), Math::max);
+                            Thread.sleep(20);
+                        } finally {
+                            enUso.decrementAndGet();
+                            pool.release();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < CLIENTES; i++) {
+                MockHttpServletRequest peticion = peticion(i);
+                peticiones.add(ejecutor.submit(() -> {
+                    salida.await();
+                    MockHttpServletResponse respuesta = new MockHttpServletResponse();
+                    if (!admision.preHandle(peticion, respuesta, null)) {
+                        resultado.rechazadas.incrementAndGet();
+                        return null;
+                    }
+                    try {
+                        if (!pool.tryAcquire()) {
+                            resultado.sinConexion.incrementAndGet();
+                        } else {
+                            try {
+                                resultado.maximoEnUso.accumulateAndGet(enUso.incrementAndGet(), Math::max);
+                                Thread.sleep(20);
+                            } finally {
+                                enUso.decrementAndGet();
+                                pool.release();
+                            }
+                        }
+                        resultado.completadas.incrementAndGet();
+                    } finally {
+                        admision.afterCompletion(peticion, respuesta, null, null);
+                    }
+                    return null;
+                }));
+            }
+            salida.countDown();
+            for (Future<?> peticion : peticiones) {
+                peticion.get(60, TimeUnit.SECONDS);
+            }
+            terminado.set(true);
+            for (Future<?> tarea : tareas) {
+                tarea.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+        return resultado;
+    }
+
+    private static MockHttpServletRequest peticion(int i) {
+        switch (i % 4) {
+        case 0:
+            return new MockHttpServletRequest("POST", "/api/empleados");
+        case 1:
+            return new MockHttpServletRequest("GET", "/api/empleados");
+        case 2:
+            return new MockHttpServletRequest("GET", "/api/empleados/stream");
+        default:
+            return new MockHttpServletRequest("GET", "/api/empleados/" + i);
+        }
+    }
+
+    private static ExecutorService ejecutor() {
+        if (virtualesDisponibles()) {
+            return HilosVirtualesConfig.crearEjecutorVirtual();
+        }
+        logger.info("Java {} sin hilos virtuales: la prueba usa un ejecutor sin límite de hilos.",
+                System.getProperty("java.version"));
+        return Executors.newCachedThreadPool();
+    }
+
+    private static boolean virtualesDisponibles() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    // Todas las peticiones llegan a la vez; la latencia de cada una cuenta
+    // desde la llegada, incluida la espera por un hilo libre
+    private static Medicion medir(ExecutorService ejecutor) throws Exception {
+        long[] latencias = new long[PETICIONES_COMPARACION];
+        List<Future<?>> peticiones = new ArrayList<>();
+        long inicio = System.nanoTime();
+        try {
+            for (int i = 0; i < PETICIONES_COMPARACION; i++) {
+                int indice = i;
+                peticiones.add(ejecutor.submit(() -> {
+                    Thread.sleep(ESPERA_ES_MS);
+                    latencias[indice] = System.nanoTime() - inicio;
+                    return null;
+                }));
+            }
+            for (Future<?> peticion : peticiones) {
+                peticion.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+        long duracion = System.nanoTime() - inicio;
+        Arrays.sort(latencias);
+        return new Medicion(PETICIONES_COMPARACION * 1_000_000_000L / duracion,
+                latencias[(int) (latencias.length * 0.99) - 1] / 1_000_000);
+    }
+
+    private static class Medicion {
+
+        private final long porSegundo;
+        private final long p99Ms;
+
+        Medicion(long porSegundo, long p99Ms) {
+            this.porSegundo = porSegundo;
+            this.p99Ms = p99Ms;
+        }
+
+    }
+
+    private static class Resultado {
+
+        private final AtomicInteger completadas = new AtomicInteger();
+        private final AtomicInteger rechazadas = new AtomicInteger();
+        private final AtomicInteger sinConexion = new AtomicInteger();
+        private final AtomicInteger maximoEnUso = new AtomicInteger();
+
+    }
+
+}
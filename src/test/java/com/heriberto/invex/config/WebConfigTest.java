@@ -0,0 +1,185 @@
+package com.heriberto.invex.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.smile.SmileConstants;
+import com.heriberto.invex.controllers.EmpleadoController;
+import com.heriberto.invex.entities.Empleado;
+import com.heriberto.invex.entities.EmpleadoDTO;
+import com.heriberto.invex.idempotencia.AlmacenIdempotencia;
+import com.heriberto.invex.idempotencia.HuellaCuerpoAdvice;
+import com.heriberto.invex.services.EmpleadoServiceImpl;
+
+/**
+ * Negociación de Smile y CBOR en /api/empleados con los convertidores que
+ * combina HttpMessageConverters de Spring Boot, como en la aplicación.
+ */
+public class WebConfigTest {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+    private static final MediaType CBOR = new MediaType("application", "cbor");
+
+    @Mock
+    private EmpleadoServiceImpl empleadoService;
+
+    @Spy
+    private AlmacenIdempotencia almacenIdempotencia = new AlmacenIdempotencia(100, 60);
+
+    @InjectMocks
+    private EmpleadoController empleadoController;
+
+    private MockMvc mockMvc;
+    private List<HttpMessageConverter<?>> converters;
+    private MappingJackson2SmileHttpMessageConverter smile;
+    private MappingJackson2CborHttpMessageConverter cbor;
+    private List<Empleado> empleados;
+    private EmpleadoDTO empleadoDTO;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        WebConfig webConfig = new WebConfig();
+        smile = webConfig.smileHttpMessageConverter(new Jackson2ObjectMapperBuilder());
+        cbor = webConfig.cborHttpMessageConverter(new Jackson2ObjectMapperBuilder());
+        converters = new HttpMessageConverters(smile, cbor).getConverters();
+        mockMvc = MockMvcBuilders.standaloneSetup(empleadoController)
+                .setControllerAdvice(new HuellaCuerpoAdvice())
+                .setMessageConverters(converters.toArray(new HttpMessageConverter<?>[0]))
+                .build();
+
+        empleados = Arrays.asList(
+                new Empleado(1L, "Heriberto", "", "Reyna", "Castro", 26, "Masculino", LocalDate.of(1998, 7, 8),
+                        "Desarrollador"),
+                new Empleado(2L, "Ana", "Christina", "Reyna", "Castro", 26, "Femenino", LocalDate.of(1993, 4, 3),
+                        "Desarrollador"));
+
+        empleadoDTO = new EmpleadoDTO();
+        empleadoDTO.setPrimer_nombre("Heriberto");
+        empleadoDTO.setApellido_paterno("Reyna");
+        empleadoDTO.setApellido_materno("Castro");
+        empleadoDTO.setEdad(26);
+        empleadoDTO.setSexo("Masculino");
+        empleadoDTO.setFecha_nacimiento("08-07-1998");
+        empleadoDTO.setPuesto("Desarrollador");
+    }
+
+    @Test
+    void testConvertidores_PrecedenALosDeSpringBoot() {
+        // Act
+        HttpMessageConverter<?> primeroSmile = converters.stream()
+                .filter(c -> c instanceof MappingJackson2SmileHttpMessageConverter).findFirst().get();
+        HttpMessageConverter<?> primeroCbor = converters.stream()
+                .filter(c -> c instanceof MappingJackson2CborHttpMessageConverter).findFirst().get();
+
+        // Assert
+        assertSame(smile, primeroSmile);
+        assertSame(cbor, primeroCbor);
+    }
+
+    @Test
+    void testObtenerEmpleados_Smile() throws Exception {
+        // Arrange
+        when(empleadoService.findAll()).thenReturn(empleados);
+
+        // Act
+        byte[] cuerpo = mockMvc.perform(get("/api/empleados").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        assertValoresCompartidos(cuerpo);
+        List<Empleado> leidos = smile.getObjectMapper().readValue(cuerpo, new TypeReference<List<Empleado>>() {});
+        assertEquals("Heriberto", leidos.get(0).getPrimer_nombre());
+        assertEquals(LocalDate.of(1993, 4, 3), leidos.get(1).getFecha_nacimiento());
+    }
+
+    @Test
+    void testInsertarEmpleados_Smile() throws Exception {
+        // Arrange
+        when(empleadoService.insertarEmpleados(anyList())).thenReturn(Collections.singletonList(empleados.get(0)));
+        byte[] peticion = smile.getObjectMapper().writeValueAsBytes(Collections.singletonList(empleadoDTO));
+
+        // Act
+        byte[] cuerpo = mockMvc.perform(post("/api/empleados").contentType(SMILE).accept(SMILE).content(peticion))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        assertValoresCompartidos(cuerpo);
+        List<Empleado> leidos = smile.getObjectMapper().readValue(cuerpo, new TypeReference<List<Empleado>>() {});
+        assertEquals(1L, leidos.get(0).getId());
+    }
+
+    @Test
+    void testObtenerEmpleados_Cbor() throws Exception {
+        // Arrange
+        when(empleadoService.findAll()).thenReturn(empleados);
+
+        // Act
+        byte[] cuerpo = mockMvc.perform(get("/api/empleados").accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        List<Empleado> leidos = cbor.getObjectMapper().readValue(cuerpo, new TypeReference<List<Empleado>>() {});
+        assertEquals(2, leidos.size());
+        assertEquals("Ana", leidos.get(1).getPrimer_nombre());
+    }
+
+    @Test
+    void testInsertarEmpleados_Cbor() throws Exception {
+        // Arrange
+        when(empleadoService.insertarEmpleados(anyList())).thenReturn(Collections.singletonList(empleados.get(0)));
+        byte[] peticion = cbor.getObjectMapper().writeValueAsBytes(Collections.singletonList(empleadoDTO));
+
+        // Act
+        byte[] cuerpo = mockMvc.perform(post("/api/empleados").contentType(CBOR).accept(CBOR).content(peticion))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        List<Empleado> leidos = cbor.getObjectMapper().readValue(cuerpo, new TypeReference<List<Empleado>>() {});
+        assertEquals(LocalDate.of(1998, 7, 8), leidos.get(0).getFecha_nacimiento());
+    }
+
+    // La cabecera Smile indica si el documento comparte valores; el mapper por
+    // defecto de Spring Boot no lo activa
+    private void assertValoresCompartidos(byte[] cuerpo) {
+        assertEquals(SmileConstants.HEADER_BYTE_1, cuerpo[0]);
+        assertTrue((cuerpo[3] & SmileConstants.HEADER_BIT_HAS_SHARED_STRING_VALUES) != 0);
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.heriberto.invex.controllers;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.heriberto.invex.entities.VolcadoJfrDTO;
+import com.heriberto.invex.perfilado.GrabacionContinua;
+
+public class AdminControllerTest {
+
+    @Mock
+    private GrabacionContinua grabacionContinua;
+
+    @InjectMocks
+    private AdminController adminController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(adminController, "volcadosHabilitados", true);
+        mockMvc = MockMvcBuilders.standaloneSetup(adminController).build();
+    }
+
+    @Test
+    void testVolcarJfr_Success() throws Exception {
+        // Arrange
+        Instant hasta = Instant.now();
+        VolcadoJfrDTO volcado = new VolcadoJfrDTO("/tmp/invex-jfr/invex.jfr", 2048, hasta.minusSeconds(600), hasta);
+        when(grabacionContinua.volcar(10)).thenReturn(volcado);
+
+        // Act & Assert
+        mockMvc.perform(post("/admin/jfr/volcados").param("minutos", "10"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.archivo").value("/tmp/invex-jfr/invex.jfr"))
+                .andExpect(jsonPath("$.bytes").value(2048));
+
+        verify(grabacionContinua, times(1)).volcar(10);
+    }
+
+    @Test
+    void testVolcarJfr_MinutosFueraDeRango() throws Exception {
+        // Arrange
+        when(grabacionContinua.volcar(0)).thenThrow(new IllegalArgumentException("Los minutos deben estar entre 1 y 30"));
+
+        // Act & Assert
+        mockMvc.perform(post("/admin/jfr/volcados").param("minutos", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testVolcarJfr_GrabacionDesactivada() throws Exception {
+        // Arrange
+        AdminController sinGrabacion = new AdminController();
+        ReflectionTestUtils.setField(sinGrabacion, "volcadosHabilitados", true);
+        MockMvc mockMvcSinGrabacion = MockMvcBuilders.standaloneSetup(sinGrabacion).build();
+
+        // Act & Assert
+        mockMvcSinGrabacion.perform(post("/admin/jfr/volcados"))
+                .andExpect(status().isServiceUnavailable());
+
+        verify(grabacionContinua, never()).volcar(5);
+    }
+
+    @Test
+    void testVolcarJfr_VolcadosDeshabilitados() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(adminController, "volcadosHabilitados", false);
+
+        // Act & Assert
+        mockMvc.perform(post("/admin/jfr/volcados").param("minutos", "10"))
+                .andExpect(status().isNotFound());
+
+        verify(grabacionContinua, never()).volcar(10);
+    }
+
+}
@@ -1,28 +1,38 @@
 package com.heriberto.invex.controllers;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.heriberto.invex.entities.Empleado;
+import com.heriberto.invex.entities.EmpleadoCambiosDTO;
+import com.heriberto.invex.entities.EstadisticasDTO;
 import com.heriberto.invex.entities.EmpleadoDTO;
+import com.heriberto.invex.entities.ResultadoInsercionDTO;
 import com.heriberto.invex.exceptions.IdNotFound;
+import com.heriberto.invex.idempotencia.AlmacenIdempotencia;
+import com.heriberto.invex.idempotencia.HuellaCuerpoAdvice;
 import com.heriberto.invex.services.EmpleadoServiceImpl;
+import com.heriberto.invex.services.EstadisticasService;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public class EmpleadoControllerTest {
@@ -30,6 +40,12 @@ public class EmpleadoControllerTest {
     @Mock
     private EmpleadoServiceImpl empleadoService;
 
+    @Mock
+    private EstadisticasService estadisticasService;
+
+    @Spy
+    private AlmacenIdempotencia almacenIdempotencia = new AlmacenIdempotencia(100, 60);
+
     @InjectMocks
     private EmpleadoController empleadoController;
 
@@ -44,7 +60,8 @@ public class EmpleadoControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        mockMvc = MockMvcBuilders.standaloneSetup(empleadoController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(empleadoController)
+                .setControllerAdvice(new HuellaCuerpoAdvice()).build();
 
         Empleado1 = new Empleado(1L, "Heriberto","" ,"Reyna", "Castro", 26, "Masculino", LocalDate.of(1998,07,8) , "Desarrollador");
         Empleado2 = new Empleado(2L, "Ana","Christina" ,"Reyna", "Castro", 26, "Femenino", LocalDate.of(1993,04,3) , "Desarrollador");
@@ -198,5 +215,189 @@ public class EmpleadoControllerTest {
 
         verify(empleadoService, never()).insertarEmpleados(anyList());
     }
-  
+
+    @Test
+    void testInsertarEmpleados_IdempotencyKey() throws Exception {
+        // Arrange
+        List<EmpleadoDTO> empleadosDTOList = Arrays.asList(empleadoDTO1);
+        when(empleadoService.insertarEmpleados(anyList())).thenReturn(Arrays.asList(Empleado1));
+        String cuerpo = new ObjectMapper().writeValueAsString(empleadosDTOList);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/empleados")
+                .header(AlmacenIdempotencia.CABECERA_CLAVE, "lote-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cuerpo))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(AlmacenIdempotencia.CABECERA_REPETIDA));
+        mockMvc.perform(post("/api/empleados")
+                .header(AlmacenIdempotencia.CABECERA_CLAVE, "lote-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cuerpo))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(AlmacenIdempotencia.CABECERA_REPETIDA, "true"))
+                .andExpect(header().string("Preference-Applied", "return=minimal"))
+                .andExpect(jsonPath("$.idDesde").value(1));
+
+        verify(empleadoService, times(1)).insertarEmpleados(anyList());
+    }
+
+    @Test
+    void testInsertarEmpleados_IdempotencyKeyConOtroCuerpo() throws Exception {
+        // Arrange
+        when(empleadoService.insertarEmpleados(anyList())).thenReturn(Arrays.asList(Empleado1));
+        ObjectMapper mapper = new ObjectMapper();
+
+        // Act & Assert
+        mockMvc.perform(post("/api/empleados")
+                .header(AlmacenIdempotencia.CABECERA_CLAVE, "lote-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(Arrays.asList(empleadoDTO1))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/empleados")
+                .header(AlmacenIdempotencia.CABECERA_CLAVE, "lote-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(Arrays.asList(empleadoDTO2))))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(empleadoService, times(1)).insertarEmpleados(anyList());
+    }
+
+    @Test
+    void testInsertarEmpleados_IdempotencyKeyHuellaDeLosBytesRecibidos() throws Exception {
+        // Arrange: el convertidor ignora el salto final, la huella no
+        when(empleadoService.insertarEmpleados(anyList())).thenReturn(Arrays.asList(Empleado1));
+        String cuerpo = new ObjectMapper().writeValueAsString(Arrays.asList(empleadoDTO1));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/empleados")
+                .header(AlmacenIdempotencia.CABECERA_CLAVE, "lote-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cuerpo + "\n"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/empleados")
+                .header(AlmacenIdempotencia.CABECERA_CLAVE, "lote-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cuerpo + "\n"))
+                .andExpect(header().string(AlmacenIdempotencia.CABECERA_REPETIDA, "true"));
+        mockMvc.perform(post("/api/empleados")
+                .header(AlmacenIdempotencia.CABECERA_CLAVE, "lote-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cuerpo))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(empleadoService, times(1)).insertarEmpleados(anyList());
+    }
+
+    @Test
+    void testInsertarEmpleados_IdempotencyKeyConOtraPreferencia() throws Exception {
+        // Arrange
+        when(empleadoService.insertarEmpleados(anyList())).thenReturn(Arrays.asList(Empleado1));
+        when(empleadoService.insertarEmpleadosMinimo(anyList(), eq(false))).thenReturn(ResultadoInsercionDTO.deTotal(1));
+        String cuerpo = new ObjectMapper().writeValueAsString(Arrays.asList(empleadoDTO1));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/empleados")
+                .header(AlmacenIdempotencia.CABECERA_CLAVE, "lote-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cuerpo))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/empleados")
+                .header(AlmacenIdempotencia.CABECERA_CLAVE, "lote-1")
+                .header("Prefer", "return=count")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cuerpo))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(AlmacenIdempotencia.CABECERA_REPETIDA))
+                .andExpect(jsonPath("$.total").value(1));
+    }
+
+    @Test
+    void testInsertarEmpleados_ReturnMinimal() throws Exception {
+        // Arrange
+        List<EmpleadoDTO> empleadosDTOList = Arrays.asList(empleadoDTO1, empleadoDTO1);
+        when(empleadoService.insertarEmpleadosMinimo(anyList(), eq(true)))
+                .thenReturn(ResultadoInsercionDTO.deIds(new long[] { 7, 8 }));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/empleados")
+                .header("Prefer", "return=minimal")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(empleadosDTOList)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Preference-Applied", "return=minimal"))
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.idDesde").value(7))
+                .andExpect(jsonPath("$.idHasta").value(8))
+                .andExpect(jsonPath("$.ids").doesNotExist());
+
+        verify(empleadoService, never()).insertarEmpleados(anyList());
+    }
+
+    @Test
+    void testObtenerCambios_Success() throws Exception {
+        // Arrange
+        EmpleadoCambiosDTO cambios = new EmpleadoCambiosDTO(Arrays.asList(Empleado1), Collections.singletonList(2L), "1700000000000");
+        when(empleadoService.obtenerCambios("1600000000000")).thenReturn(cambios);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/empleados/changes").param("since", "1600000000000")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.modificados[0].primer_nombre").value("Heriberto"))
+                .andExpect(jsonPath("$.eliminados[0]").value(2))
+                .andExpect(jsonPath("$.token").value("1700000000000"));
+
+        verify(empleadoService, times(1)).obtenerCambios("1600000000000");
+    }
+
+    @Test
+    void testObtenerCambios_TokenInvalido() throws Exception {
+        // Arrange
+        when(empleadoService.obtenerCambios("abc")).thenThrow(new IllegalArgumentException("Token inválido"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/empleados/changes").param("since", "abc")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testObtenerEstadisticas_Success() throws Exception {
+        // Arrange
+        EstadisticasDTO estadisticas = new EstadisticasDTO(2, Collections.singletonMap("Desarrollador", 2L),
+                Collections.singletonMap("Femenino", 1L), Collections.singletonMap("20-29", 2L));
+        when(estadisticasService.obtenerEstadisticas()).thenReturn(estadisticas);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/empleados/estadisticas")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.porPuesto.Desarrollador").value(2))
+                .andExpect(jsonPath("$.porRangoEdad['20-29']").value(2));
+
+        verify(estadisticasService, times(1)).obtenerEstadisticas();
+    }
+
+    @Test
+    void testContarEmpleados_HeadYCount() throws Exception {
+        // Arrange
+        when(estadisticasService.contarEmpleados()).thenReturn(42L);
+
+        // Act & Assert
+        mockMvc.perform(head("/api/empleados"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "42"))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/empleados/count"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "42"))
+                .andExpect(content().string("42"));
+
+        verify(estadisticasService, times(2)).contarEmpleados();
+        verify(empleadoService, never()).findAll();
+    }
+
 }
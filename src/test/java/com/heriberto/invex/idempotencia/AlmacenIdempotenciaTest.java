@@ -0,0 +1,167 @@
+package com.heriberto.invex.idempotencia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+public class AlmacenIdempotenciaTest {
+
+    @Test
+    void testEjecutar_RepiteLaRespuestaGuardada() {
+        // Arrange
+        AlmacenIdempotencia almacen = new AlmacenIdempotencia(10, 60);
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        // Act
+        ResponseEntity<String> primera = ejecutar(almacen, "a",
+                () -> new ResponseEntity<>("ok-" + ejecuciones.incrementAndGet(), HttpStatus.CREATED));
+        ResponseEntity<String> segunda = ejecutar(almacen, "a",
+                () -> new ResponseEntity<>("ok-" + ejecuciones.incrementAndGet(), HttpStatus.CREATED));
+
+        // Assert
+        assertEquals(1, ejecuciones.get());
+        assertEquals("ok-1", segunda.getBody());
+        assertEquals(HttpStatus.CREATED, segunda.getStatusCode());
+        assertNull(primera.getHeaders().getFirst(AlmacenIdempotencia.CABECERA_REPETIDA));
+        assertEquals("true", segunda.getHeaders().getFirst(AlmacenIdempotencia.CABECERA_REPETIDA));
+    }
+
+    @Test
+    void testEjecutar_NoGuardaErroresDelServidor() {
+        // Arrange
+        AlmacenIdempotencia almacen = new AlmacenIdempotencia(10, 60);
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        // Act
+        ejecutar(almacen, "a", () -> {
+            ejecuciones.incrementAndGet();
+            return new ResponseEntity<String>(HttpStatus.INTERNAL_SERVER_ERROR);
+        });
+        ResponseEntity<String> reintento = ejecutar(almacen, "a", () -> {
+            ejecuciones.incrementAndGet();
+            return new ResponseEntity<>("ok", HttpStatus.CREATED);
+        });
+
+        // Assert
+        assertEquals(2, ejecuciones.get());
+        assertEquals(HttpStatus.CREATED, reintento.getStatusCode());
+    }
+
+    @Test
+    void testEjecutar_AcotaElNumeroDeEntradasYCaduca() {
+        // Arrange
+        AlmacenIdempotencia acotado = new AlmacenIdempotencia(2, 60);
+        AlmacenIdempotencia sinTtl = new AlmacenIdempotencia(10, 0);
+
+        // Act
+        for (String clave : new String[] { "a", "b", "c" }) {
+            ejecutar(acotado, clave, () -> new ResponseEntity<>(clave, HttpStatus.OK));
+        }
+        ejecutar(sinTtl, "a", () -> new ResponseEntity<>("primera", HttpStatus.OK));
+        ResponseEntity<String> trasCaducar = ejecutar(sinTtl, "a", () -> new ResponseEntity<>("segunda", HttpStatus.OK));
+
+        // Assert
+        assertEquals(2, acotado.tamano());
+        assertEquals("segunda", trasCaducar.getBody());
+    }
+
+    @Test
+    void testEjecutar_LaRepeticionConcurrenteRespondeConflictoSinEsperar() throws Exception {
+        // Arrange
+        AlmacenIdempotencia almacen = new AlmacenIdempotencia(10, 60);
+        AtomicInteger ejecuciones = new AtomicInteger();
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch continuar = new CountDownLatch(1);
+        ExecutorService hilos = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<ResponseEntity<String>> primera = hilos.submit(() -> ejecutar(almacen, "a", () -> {
+                ejecuciones.incrementAndGet();
+                dentro.countDown();
+                esperar(continuar);
+                return new ResponseEntity<>("ok", HttpStatus.CREATED);
+            }));
+            dentro.await(5, TimeUnit.SECONDS);
+
+            // Act: la primera sigue bloqueada, así que la repetición no puede esperarla
+            ResponseEntity<String> repetida = ejecutar(almacen, "a", () -> {
+                ejecuciones.incrementAndGet();
+                return new ResponseEntity<>("duplicada", HttpStatus.CREATED);
+            });
+            continuar.countDown();
+
+            // Assert
+            assertEquals(HttpStatus.CONFLICT, repetida.getStatusCode());
+            assertEquals("ok", primera.get(5, TimeUnit.SECONDS).getBody());
+            assertEquals("ok", ejecutar(almacen, "a", () -> new ResponseEntity<>("otra", HttpStatus.OK)).getBody());
+            assertEquals(1, ejecuciones.get());
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    @Test
+    void testEjecutar_CuerpoDistintoResponde422() {
+        // Arrange
+        AlmacenIdempotencia almacen = new AlmacenIdempotencia(10, 60);
+        AtomicInteger ejecuciones = new AtomicInteger();
+        almacen.ejecutar("a", () -> AlmacenIdempotencia.huella("uno".getBytes()), () -> {
+            ejecuciones.incrementAndGet();
+            return new ResponseEntity<>("ok", HttpStatus.CREATED);
+        }, respuesta -> respuesta);
+
+        // Act
+        ResponseEntity<String> otroCuerpo = almacen.ejecutar("a", () -> AlmacenIdempotencia.huella("dos".getBytes()),
+                () -> {
+                    ejecuciones.incrementAndGet();
+                    return new ResponseEntity<>("ok", HttpStatus.CREATED);
+                }, respuesta -> respuesta);
+
+        // Assert
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, otroCuerpo.getStatusCode());
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    void testEjecutar_GuardaLaRespuestaCompacta() {
+        // Arrange
+        AlmacenIdempotencia almacen = new AlmacenIdempotencia(10, 60);
+
+        // Act
+        ResponseEntity<String> primera = almacen.ejecutar("a", () -> "h",
+                () -> new ResponseEntity<>("respuesta completa", HttpStatus.CREATED),
+                respuesta -> new ResponseEntity<>("ids", respuesta.getStatusCode()));
+        ResponseEntity<String> repetida = ejecutar(almacen, "a", () -> new ResponseEntity<>("otra", HttpStatus.OK));
+
+        // Assert
+        assertEquals("respuesta completa", primera.getBody());
+        assertEquals("ids", repetida.getBody());
+        assertEquals(HttpStatus.CREATED, repetida.getStatusCode());
+    }
+
+    // Misma huella en todas las peticiones y respuesta guardada sin cambios
+    private static <T> ResponseEntity<T> ejecutar(AlmacenIdempotencia almacen, String clave,
+            Supplier<ResponseEntity<T>> operacion) {
+        return almacen.ejecutar(clave, () -> "h", operacion, respuesta -> respuesta);
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.heriberto.invex.idempotencia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+public class CuerpoPeticionTest {
+
+    @Test
+    void testHuella_IncluyeLoQueLaOperacionNoLeyo() throws Exception {
+        // Arrange
+        byte[] contenido = "[{\"primer_nombre\":\"Juan\"}]\n".getBytes(StandardCharsets.UTF_8);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/empleados/stream");
+        request.setContent(contenido);
+        CuerpoPeticion cuerpo = new CuerpoPeticion(request, true);
+
+        // Act: la operación lee una parte y cierra la entrada
+        InputStream entrada = cuerpo.abrir();
+        entrada.read(new byte[5]);
+        entrada.close();
+        String huella = cuerpo.huella();
+
+        // Assert
+        assertEquals(AlmacenIdempotencia.huella(contenido), huella);
+        assertEquals(huella, cuerpo.huella());
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.heriberto.invex.perfilado;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.heriberto.invex.entities.VolcadoJfrDTO;
+
+public class GrabacionContinuaTest {
+
+    @TempDir
+    Path directorio;
+
+    private GrabacionContinua grabacion;
+
+    @AfterEach
+    void tearDown() {
+        if (grabacion != null) {
+            grabacion.detener();
+        }
+    }
+
+    @Test
+    void testVolcar_ConservaSoloLosUltimosVolcados() throws Exception {
+        // Arrange
+        grabacion = new GrabacionContinua(5, 16, directorio.toString(), 2);
+        grabacion.iniciar();
+
+        // Act
+        VolcadoJfrDTO ultimo = null;
+        for (int i = 0; i < 5; i++) {
+            VolcadoJfrDTO volcado = grabacion.volcar(1);
+            if (volcado != null) {
+                ultimo = volcado;
+            }
+            Thread.sleep(5);
+        }
+
+        // Assert
+        assertNotNull(ultimo);
+        List<Path> archivos;
+        try (Stream<Path> listado = Files.list(directorio)) {
+            archivos = listado.collect(Collectors.toList());
+        }
+        assertTrue(archivos.size() <= 2);
+        assertTrue(archivos.contains(Paths.get(ultimo.getArchivo())));
+    }
+
+    @Test
+    void testVolcar_NoBorraOtrosArchivos() throws Exception {
+        // Arrange
+        Path ajeno = Files.createFile(directorio.resolve("notas.txt"));
+        grabacion = new GrabacionContinua(5, 16, directorio.toString(), 1);
+        grabacion.iniciar();
+
+        // Act
+        grabacion.volcar(1);
+        Thread.sleep(5);
+        grabacion.volcar(1);
+
+        // Assert
+        assertTrue(Files.exists(ajeno));
+        try (Stream<Path> listado = Files.list(directorio)) {
+            assertEquals(1, listado.filter(archivo -> archivo.toString().endsWith(".jfr")).count());
+        }
+    }
+
+}
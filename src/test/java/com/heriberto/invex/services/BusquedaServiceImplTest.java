@@ -0,0 +1,113 @@
+package com.heriberto.invex.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.heriberto.invex.entities.Empleado;
+import com.heriberto.invex.events.EmpleadoEvent;
+import com.heriberto.invex.repositories.EmpleadoRepository;
+
+public class BusquedaServiceImplTest {
+
+    @Mock
+    private EmpleadoRepository empleadoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private BusquedaServiceImpl busquedaService;
+
+    private Empleado Empleado1;
+    private Empleado Empleado2;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Empleado1 = new Empleado(1L, "Heriberto", "", "Reyna", "Castro", 26, "Masculino", LocalDate.of(1998, 7, 8),
+                "Desarrollador");
+        Empleado2 = new Empleado(2L, "Ana", "Christina", "Reyna", "Castro", 31, "Femenino", LocalDate.of(1993, 4, 3),
+                "Analista");
+    }
+
+    @Test
+    void testReconstruirIndice_RepiteCambiosRecibidosDuranteElRecorrido() {
+        // Arrange: un alta confirmada mientras se recorre la tabla
+        when(empleadoRepository.streamAll()).thenAnswer(invocacion -> Stream.of(Empleado1).peek(
+                empleado -> busquedaService.alCambiarEmpleados(EmpleadoEvent.altas(Arrays.asList(Empleado2)))));
+        when(empleadoRepository.findAllById(anyIterable())).thenReturn(Arrays.asList(Empleado2));
+
+        // Act
+        busquedaService.reconstruirIndice();
+        List<Empleado> encontrados = busquedaService.buscarPorNombre("Christina", 10);
+
+        // Assert
+        assertEquals(1, encontrados.size());
+        assertEquals(2L, encontrados.get(0).getId());
+    }
+
+    @Test
+    void testCargaMasiva_ReconstruyeEnSegundoPlano() {
+        // Arrange
+        when(empleadoRepository.streamAll()).thenAnswer(invocacion -> Stream.of(Empleado1, Empleado2));
+
+        // Act
+        busquedaService.alCambiarEmpleados(EmpleadoEvent.cargaMasiva(1000));
+        boolean pendiente = busquedaService.isReconstruccionPendiente();
+        busquedaService.reconstruirPendiente();
+
+        // Assert
+        assertTrue(pendiente);
+        assertFalse(busquedaService.isReconstruccionPendiente());
+    }
+
+    @Test
+    void testIniciar_SinBaseDeDatosReintenta() {
+        // Arrange
+        when(empleadoRepository.streamAll()).thenThrow(new IllegalStateException("Sin conexión"));
+
+        // Act
+        busquedaService.iniciar();
+
+        // Assert
+        assertTrue(busquedaService.isReconstruccionPendiente());
+    }
+
+    @Test
+    void testBuscarPorNombre_RespetaElOrdenDelIndice() {
+        // Arrange
+        when(empleadoRepository.streamAll()).thenAnswer(invocacion -> Stream.of(Empleado1, Empleado2));
+        // La base de datos devuelve las filas en otro orden
+        when(empleadoRepository.findAllById(anyIterable())).thenReturn(Arrays.asList(Empleado2, Empleado1));
+        busquedaService.reconstruirIndice();
+
+        // Act
+        List<Empleado> encontrados = busquedaService.buscarPorNombre("Reyna Castro", 10);
+
+        // Assert
+        assertEquals(2, encontrados.size());
+        assertEquals(1L, encontrados.get(0).getId());
+        assertEquals(2L, encontrados.get(1).getId());
+    }
+
+}
@@ -0,0 +1,240 @@
+package com.heriberto.invex.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.ArgumentMatchers;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.heriberto.invex.catalogo.Catalogos;
+import com.heriberto.invex.entities.Empleado;
+import com.heriberto.invex.entities.ResultadoCargaDTO;
+import com.heriberto.invex.events.EmpleadoEvent;
+import com.heriberto.invex.exceptions.InvalidDateFormatException;
+import com.heriberto.invex.repositories.EmpleadoRepository;
+import com.mysql.cj.jdbc.JdbcStatement;
+
+public class CargaMasivaServiceImplTest {
+
+    @Mock
+    private EmpleadoRepository empleadoRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private Catalogos catalogos = new Catalogos();
+
+    @InjectMocks
+    private CargaMasivaServiceImpl cargaMasivaService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(cargaMasivaService, "tamanoLote", 2);
+        when(validator.validate(any(Empleado.class))).thenReturn(Collections.emptySet());
+        // Catálogos propios de cada prueba
+        String[] nombres = { "Desarrollador", "Analista", "Gerente", "Soporte" };
+        Map<Integer, String> puestos = new HashMap<>();
+        for (int i = 0; i < nombres.length; i++) {
+            puestos.put(i + 1, nombres[i]);
+        }
+        catalogos.getPuestos().cargar(puestos);
+        Map<Integer, String> sexos = new HashMap<>();
+        sexos.put(1, "Masculino");
+        sexos.put(2, "M");
+        sexos.put(3, "F");
+        catalogos.getSexos().cargar(sexos);
+    }
+
+    @Test
+    void testCargarJson_GuardaPorLotes() {
+        // Arrange
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 5; i++) {
+            json.append(i > 0 ? "," : "").append(empleadoJson("Nombre" + i, "08-07-1998"));
+        }
+        json.append("]");
+
+        // Act
+        ResultadoCargaDTO resultado = cargaMasivaService.cargarJson(entrada(json.toString()));
+
+        // Assert
+        assertEquals(5, resultado.getInsertados());
+        verify(empleadoRepository, times(3)).saveAll(anyList());
+        verify(entityManager, times(3)).clear();
+        verify(eventPublisher, times(1)).publishEvent(any(EmpleadoEvent.class));
+    }
+
+    @Test
+    void testCargarJson_FechaInvalida() {
+        // Arrange
+        String json = "[" + empleadoJson("Juan", "08-07-1998") + "," + empleadoJson("Ana", "1998/07/08") + "]";
+
+        // Act & Assert
+        InvalidDateFormatException exception = assertThrows(InvalidDateFormatException.class,
+                () -> cargaMasivaService.cargarJson(entrada(json)));
+        assertTrue(exception.getMessage().startsWith("Fila 2"));
+        verify(eventPublisher, never()).publishEvent(any(EmpleadoEvent.class));
+    }
+
+    @Test
+    void testCargarJson_ListaVacia() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> cargaMasivaService.cargarJson(entrada("[]")));
+        assertEquals("La lista de empleados no puede estar vacía", exception.getMessage());
+        verify(empleadoRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testCargarJson_NoEsArreglo() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> cargaMasivaService.cargarJson(entrada("{\"a\":1}")));
+        assertThrows(IllegalArgumentException.class, () -> cargaMasivaService.cargarJson(entrada("[{\"primer_nombre\":")));
+    }
+
+    @Test
+    void testCargarCsv_InsertMultipleYRechazadas() {
+        // Arrange
+        String csv = "primer_nombre,segundo_nombre,apellido_paterno,apellido_materno,edad,sexo,fecha_nacimiento,puesto\n"
+                + "Juan,,Reyna,Castro,26,M,08-07-1998,Desarrollador\n"
+                + "\"Ana, María\",,Reyna,Castro,30,F,01-01-1994,Analista\n"
+                + "Luis,,Reyna,Castro,40,M,1984/01/01,Gerente\n"
+                + "Eva,,Reyna,Castro,22,F,02-02-2002,Soporte\n";
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(false);
+        when(jdbcTemplate.update(anyString(), ArgumentMatchers.<Object>any()))
+                .thenAnswer(invocation -> (invocation.getArguments().length - 1) / 10);
+
+        // Act
+        ResultadoCargaDTO resultado = cargaMasivaService.cargarCsv(entrada(csv));
+
+        // Assert
+        assertEquals(3, resultado.getInsertados());
+        assertEquals(1, resultado.getRechazados());
+        assertTrue(resultado.getErrores().get(0).startsWith("Línea 4: "));
+        verify(empleadoRepository, never()).saveAll(anyList());
+        verify(eventPublisher, times(1)).publishEvent(any(EmpleadoEvent.class));
+    }
+
+    @Test
+    void testCargarCsv_RechazaCadaColumnaInvalida() {
+        // Arrange
+        String csv = "Juan,,Reyna,Castro,26,M,08-07-1998,Desarrollador\n"
+                + "Ana,,Reyna,Castro,treinta,Femenino y algo más,01-01-1994,Analista\n"
+                + "Luis,,Reyna,Castro,40,M,01-01-1984,Gerente\n";
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(false);
+        when(jdbcTemplate.update(anyString(), ArgumentMatchers.<Object>any()))
+                .thenAnswer(invocation -> (invocation.getArguments().length - 1) / 10);
+
+        // Act
+        ResultadoCargaDTO resultado = cargaMasivaService.cargarCsv(entrada(csv));
+
+        // Assert
+        assertEquals(2, resultado.getInsertados());
+        assertEquals(1, resultado.getRechazados());
+        assertEquals("Línea 2: Edad inválida: treinta; El campo sexo excede 15 caracteres",
+                resultado.getErrores().get(0));
+    }
+
+    @Test
+    void testCargarCsv_ComillasSinCerrar() {
+        // Arrange
+        String csv = "Juan,,Reyna,Castro,26,M,08-07-1998,Desarrollador\n"
+                + "\"Ana,,Reyna,Castro,30,F,01-01-1994,Analista\n";
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(false);
+        when(jdbcTemplate.update(anyString(), ArgumentMatchers.<Object>any()))
+                .thenAnswer(invocation -> (invocation.getArguments().length - 1) / 10);
+
+        // Act
+        ResultadoCargaDTO resultado = cargaMasivaService.cargarCsv(entrada(csv));
+
+        // Assert
+        assertEquals(1, resultado.getInsertados());
+        assertEquals(1, resultado.getRechazados());
+        assertEquals("Línea 2: Comillas sin cerrar", resultado.getErrores().get(0));
+    }
+
+    @Test
+    void testCargarCsv_LoadDataAvisosComoRechazos() throws Exception {
+        // Arrange
+        String csv = "primer_nombre,segundo_nombre,apellido_paterno,apellido_materno,edad,sexo,fecha_nacimiento,puesto\n"
+                + "Juan,,Reyna,Castro,26,M,08-07-1998,Desarrollador\n"
+                + "Ana,,Reyna,Castro,30,F,01-01-1994,Analista\n";
+        Connection conexion = mock(Connection.class, RETURNS_DEEP_STUBS);
+        Statement sentencia = mock(Statement.class);
+        ResultSet avisos = mock(ResultSet.class);
+        when(conexion.getMetaData().getDatabaseProductName()).thenReturn("MySQL");
+        when(conexion.createStatement()).thenReturn(sentencia);
+        when(sentencia.unwrap(JdbcStatement.class)).thenReturn(mock(JdbcStatement.class));
+        when(sentencia.executeUpdate(anyString())).thenReturn(1);
+        when(sentencia.executeQuery("SHOW WARNINGS")).thenReturn(avisos);
+        when(avisos.next()).thenReturn(true, false);
+        when(avisos.getString("Message")).thenReturn("Duplicate entry 'Ana' for key 'nombre' at row 2");
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(
+                invocation -> ((ConnectionCallback<?>) invocation.getArgument(0)).doInConnection(conexion));
+
+        // Act
+        ResultadoCargaDTO resultado = cargaMasivaService.cargarCsv(entrada(csv));
+
+        // Assert
+        assertEquals(1, resultado.getInsertados());
+        assertEquals(1, resultado.getRechazados());
+        assertEquals("Línea 3: Duplicate entry 'Ana' for key 'nombre' at row 2", resultado.getErrores().get(0));
+    }
+
+    private static String empleadoJson(String nombre, String fecha) {
+        return "{\"primer_nombre\":\"" + nombre + "\",\"apellido_paterno\":\"Reyna\",\"apellido_materno\":\"Castro\","
+                + "\"edad\":26,\"sexo\":\"Masculino\",\"fecha_nacimiento\":\"" + fecha + "\",\"puesto\":\"Desarrollador\"}";
+    }
+
+    private static InputStream entrada(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
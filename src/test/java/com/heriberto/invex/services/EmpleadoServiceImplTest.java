@@ -2,36 +2,56 @@ package com.heriberto.invex.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import com.heriberto.invex.catalogo.Catalogos;
 import com.heriberto.invex.entities.Empleado;
+import com.heriberto.invex.entities.EmpleadoCambiosDTO;
 import com.heriberto.invex.entities.EmpleadoDTO;
+import com.heriberto.invex.entities.EmpleadoEliminado;
+import com.heriberto.invex.entities.ResultadoInsercionDTO;
+import com.heriberto.invex.events.EmpleadoEvent;
 import com.heriberto.invex.exceptions.DatabaseException;
 import com.heriberto.invex.exceptions.IdNotFound;
 import com.heriberto.invex.exceptions.InvalidDateFormatException;
+import com.heriberto.invex.repositories.EmpleadoEliminadoRepository;
 import com.heriberto.invex.repositories.EmpleadoRepository;
 
 @SpringBootTest
@@ -47,6 +67,27 @@ public class EmpleadoServiceImplTest {
     @Mock
     private EmpleadoRepository empleadoRepository;
 
+    @Mock
+    private EmpleadoEliminadoRepository empleadoEliminadoRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EscrituraDiferidaService escrituraDiferida;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private Catalogos catalogos = new Catalogos();
+
+    @Spy
+    private IngestaParalela ingestaParalela = new IngestaParalela(2, 500, 2, catalogos,
+            Validation.buildDefaultValidatorFactory().getValidator());
 
     @InjectMocks
     private EmpleadoServiceImpl empleadoService;
@@ -54,6 +95,14 @@ public class EmpleadoServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        Map<Integer, String> puestos = new HashMap<>();
+        puestos.put(1, "Desarrollador");
+        puestos.put(2, "CEO");
+        catalogos.getPuestos().cargar(puestos);
+        Map<Integer, String> sexos = new HashMap<>();
+        sexos.put(1, "Masculino");
+        sexos.put(2, "Femenino");
+        catalogos.getSexos().cargar(sexos);
         Empleado1 = new Empleado(1L, "Heriberto","" ,"Reyna", "Castro", 26, "Masculino", LocalDate.of(1998,07,8) , "Desarrollador");
         Empleado2 = new Empleado(2L, "Ana","Christina" ,"Reyna", "Castro", 26, "Femenino", LocalDate.of(1993,04,3) , "Desarrollador");
 
@@ -150,27 +199,60 @@ public class EmpleadoServiceImplTest {
     void testDelete_Success() {
         // Arrange
         Long id = 1L;
-        when(empleadoRepository.existsById(id)).thenReturn(true);
+        when(empleadoRepository.findById(id)).thenReturn(Optional.of(Empleado1));
 
         // Act
         empleadoService.delete(id);
 
         // Assert
-        verify(empleadoRepository, times(1)).existsById(id);
-        verify(empleadoRepository, times(1)).deleteById(id);
+        verify(empleadoRepository, times(1)).findById(id);
+        verify(empleadoRepository, times(1)).save(Empleado1);
+        verify(empleadoRepository, never()).delete(any(Empleado.class));
+        assertNotNull(Empleado1.getFecha_baja());
+        verify(empleadoEliminadoRepository, times(1)).save(any(EmpleadoEliminado.class));
+        verify(eventPublisher, times(1)).publishEvent(any(EmpleadoEvent.class));
     }
 
     @Test
     void testDelete_ThrowsIdNotFound() {
         // Arrange
         Long id = 1L;
-        when(empleadoRepository.existsById(id)).thenReturn(false);
+        when(empleadoRepository.findById(id)).thenReturn(Optional.empty());
 
         // Act & Assert
         IdNotFound exception = assertThrows(IdNotFound.class, () -> empleadoService.delete(id));
         assertEquals("Empleado no encontrado con el id: " + id, exception.getMessage());
-        verify(empleadoRepository, times(1)).existsById(id);
-        verify(empleadoRepository, never()).deleteById(id);
+        verify(empleadoRepository, times(1)).findById(id);
+        verify(empleadoRepository, never()).delete(any(Empleado.class));
+        verify(empleadoEliminadoRepository, never()).save(any(EmpleadoEliminado.class));
+    }
+
+    @Test
+    void testDelete_YaDadoDeBaja() {
+        // Arrange
+        Long id = 1L;
+        Empleado1.setFecha_baja(LocalDateTime.now());
+        when(empleadoRepository.findById(id)).thenReturn(Optional.of(Empleado1));
+
+        // Act & Assert
+        assertThrows(IdNotFound.class, () -> empleadoService.delete(id));
+        verify(empleadoRepository, never()).save(any(Empleado.class));
+        verify(eventPublisher, never()).publishEvent(any(EmpleadoEvent.class));
+    }
+
+    @Test
+    void testFindByIdIncluyendoArchivo() {
+        // Arrange
+        Long id = 1L;
+        Empleado1.setFecha_baja(LocalDateTime.now());
+        when(empleadoRepository.findByIdConArchivo(id)).thenReturn(Optional.of(Empleado1));
+
+        // Act
+        Empleado encontrado = empleadoService.findByIdIncluyendoArchivo(id);
+
+        // Assert
+        assertEquals(Empleado1, encontrado);
+        verify(empleadoRepository, never()).findById(id);
     }
 
     //Actualizar por ID
@@ -246,6 +328,26 @@ public class EmpleadoServiceImplTest {
         verify(empleadoRepository, times(1)).save(updatedEmpleado);
     }
 
+    @Test
+    void testActualizarEmpleado_EscrituraDiferida() {
+        // Arrange
+        Long id = 1L;
+        when(escrituraDiferida.isHabilitada()).thenReturn(true);
+        when(escrituraDiferida.registrar(id, empleadoDTO)).thenReturn(Empleado1);
+        when(escrituraDiferida.pendiente(id)).thenReturn(Optional.of(Empleado1));
+
+        // Act
+        Empleado updatedEmpleado = empleadoService.actualizarEmpleado(id, empleadoDTO);
+        Empleado leido = empleadoService.findById(id);
+
+        // Assert
+        assertEquals(Empleado1, updatedEmpleado);
+        assertEquals(Empleado1, leido);
+        verify(empleadoRepository, never()).findById(id);
+        verify(empleadoRepository, never()).save(any(Empleado.class));
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
     //Crear nuevos empleados
     @Test
     void testInsertarEmpleados_Success() {
@@ -264,6 +366,36 @@ public class EmpleadoServiceImplTest {
         assertEquals("Heriberto", empleadosGuardados.get(0).getPrimer_nombre());
         assertEquals("Ana", empleadosGuardados.get(1).getPrimer_nombre());
         verify(empleadoRepository, times(1)).saveAll(anyList());
+        verify(eventPublisher, times(1)).publishEvent(any(EmpleadoEvent.class));
+    }
+
+    @Test
+    void testInsertarEmpleadosMinimo_PorLotes() {
+        // Arrange
+        ReflectionTestUtils.setField(empleadoService, "tamanoLote", 2);
+        List<EmpleadoDTO> empleadosDTOList = Arrays.asList(empleadoDTO, empleadoDTO, empleadoDTO, empleadoDTO, empleadoDTO);
+        long[] siguienteId = { 100 };
+        when(empleadoRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Empleado> recibidos = invocation.getArgument(0);
+            List<Empleado> lote = new ArrayList<>(recibidos);
+            lote.forEach(empleado -> empleado.setId(siguienteId[0]++));
+            return lote;
+        });
+
+        // Act
+        ResultadoInsercionDTO conIds = empleadoService.insertarEmpleadosMinimo(empleadosDTOList, true);
+        ResultadoInsercionDTO soloTotal = empleadoService.insertarEmpleadosMinimo(empleadosDTOList, false);
+
+        // Assert
+        assertEquals(5, conIds.getTotal());
+        assertEquals(100L, conIds.getIdDesde());
+        assertEquals(104L, conIds.getIdHasta());
+        assertNull(conIds.getIds());
+        assertEquals(5, soloTotal.getTotal());
+        assertNull(soloTotal.getIdDesde());
+        verify(empleadoRepository, times(6)).saveAll(anyList());
+        verify(entityManager, times(6)).clear();
+        verify(eventPublisher, times(2)).publishEvent(any(EmpleadoEvent.class));
     }
 
     @Test
@@ -297,7 +429,105 @@ public class EmpleadoServiceImplTest {
         verify(empleadoRepository, never()).saveAll(anyList());
     }
 
-}
+    //Sincronización incremental
+    @Test
+    void testObtenerCambios_SinToken() {
+        // Arrange
+        when(empleadoRepository.findAll()).thenReturn(Arrays.asList(Empleado1, Empleado2));
+
+        // Act
+        EmpleadoCambiosDTO cambios = empleadoService.obtenerCambios(null);
+
+        // Assert
+        assertEquals(2, cambios.getModificados().size());
+        assertTrue(cambios.getEliminados().isEmpty());
+        assertNotNull(cambios.getToken());
+        verify(empleadoRepository, never()).findModificadosDesde(any(LocalDateTime.class));
+    }
+
+    @Test
+    void testObtenerCambios_ConToken() {
+        // Arrange
+        LocalDateTime desde = LocalDateTime.of(2024, 1, 1, 10, 0);
+        LocalDateTime modificado = desde.plusMinutes(5);
+        LocalDateTime eliminado = desde.plusMinutes(10);
+        Empleado1.setUpdated_at(modificado);
+        String token = String.valueOf(desde.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        // Se relee la ventana de un minuto previa al token
+        when(empleadoRepository.findModificadosDesde(desde.minusMinutes(1))).thenReturn(Arrays.asList(Empleado1));
+        when(empleadoEliminadoRepository.findEliminadosDesde(desde.minusMinutes(1)))
+                .thenReturn(Arrays.asList(new EmpleadoEliminado(2L, eliminado)));
+
+        // Act
+        EmpleadoCambiosDTO cambios = empleadoService.obtenerCambios(token);
+
+        // Assert
+        assertEquals(1, cambios.getModificados().size());
+        assertEquals(Arrays.asList(2L), cambios.getEliminados());
+        assertEquals(String.valueOf(eliminado.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()),
+                cambios.getToken());
+        verify(empleadoRepository, never()).findAll();
+    }
+
+    @Test
+    void testObtenerCambios_VentanaSinDuplicados() {
+        // Arrange: un empleado confirmado tarde con una marca anterior al token,
+        // y otro modificado y eliminado dentro de la ventana
+        LocalDateTime desde = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Empleado1.setUpdated_at(desde.minusSeconds(20));
+        Empleado2.setUpdated_at(desde.minusSeconds(10));
+        String token = String.valueOf(desde.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        when(empleadoRepository.findModificadosDesde(desde.minusMinutes(1)))
+                .thenReturn(Arrays.asList(Empleado1, Empleado2));
+        when(empleadoEliminadoRepository.findEliminadosDesde(desde.minusMinutes(1)))
+                .thenReturn(Arrays.asList(new EmpleadoEliminado(2L, desde.minusSeconds(5))));
 
+        // Act
+        EmpleadoCambiosDTO cambios = empleadoService.obtenerCambios(token);
+
+        // Assert
+        assertEquals(1, cambios.getModificados().size());
+        assertEquals(1L, cambios.getModificados().get(0).getId());
+        assertEquals(Arrays.asList(2L), cambios.getEliminados());
+        assertEquals(token, cambios.getToken());
+    }
+
+    @Test
+    void testObtenerCambios_TokenInvalido() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> empleadoService.obtenerCambios("no-es-token"));
+        verify(empleadoRepository, never()).findModificadosDesde(any(LocalDateTime.class));
+    }
+
+    //Streaming
+    @Test
+    void testStreamEmpleados_RecorrePorPaginas() {
+        // Arrange
+        ReflectionTestUtils.setField(empleadoService, "tamanoPagina", 2);
+        Empleado empleado3 = new Empleado(3L, "Luis", null, "Perez", "Lopez", 40, "Masculino", LocalDate.of(1984, 1, 20), "Analista");
+        when(empleadoRepository.findPaginaDesde(eq(0L), any(Pageable.class))).thenReturn(Arrays.asList(Empleado1, Empleado2));
+        when(empleadoRepository.findPaginaDesde(eq(2L), any(Pageable.class))).thenReturn(Arrays.asList(empleado3));
+
+        // Act
+        List<Empleado> empleados = empleadoService.streamEmpleados().collectList().block();
+
+        // Assert
+        assertEquals(3, empleados.size());
+        assertEquals("Luis", empleados.get(2).getPrimer_nombre());
+        verify(empleadoRepository, times(2)).findPaginaDesde(any(Long.class), any(Pageable.class));
+    }
+
+    @Test
+    void testStreamEmpleados_TablaVacia() {
+        // Arrange
+        when(empleadoRepository.findPaginaDesde(eq(0L), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        // Act
+        List<Empleado> empleados = empleadoService.streamEmpleados().collectList().block();
 
+        // Assert
+        assertTrue(empleados.isEmpty());
+        verify(empleadoRepository, times(1)).findPaginaDesde(any(Long.class), any(Pageable.class));
+    }
 
+}
@@ -0,0 +1,175 @@
+package com.heriberto.invex.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.heriberto.invex.catalogo.Catalogos;
+import com.heriberto.invex.entities.Empleado;
+import com.heriberto.invex.entities.EmpleadoDTO;
+import com.heriberto.invex.events.EmpleadoEvent;
+import com.heriberto.invex.exceptions.InvalidCatalogValueException;
+import com.heriberto.invex.exceptions.InvalidDateFormatException;
+import com.heriberto.invex.repositories.EmpleadoRepository;
+
+public class EscrituraDiferidaServiceImplTest {
+
+    @Mock
+    private EmpleadoRepository empleadoRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private Catalogos catalogos = new Catalogos();
+
+    @InjectMocks
+    private EscrituraDiferidaServiceImpl escrituraDiferida;
+
+    private Empleado empleado;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(escrituraDiferida, "habilitada", true);
+        empleado = new Empleado(1L, "Heriberto", "", "Reyna", "Castro", 26, "Masculino", LocalDate.of(1998, 7, 8),
+                "Desarrollador");
+        when(empleadoRepository.findById(1L)).thenReturn(Optional.of(empleado));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 1 });
+        // Catálogos propios de cada prueba
+        Map<Integer, String> puestos = new HashMap<>();
+        puestos.put(1, "Desarrollador");
+        puestos.put(2, "CEO");
+        catalogos.getPuestos().cargar(puestos);
+        catalogos.getSexos().cargar(Collections.singletonMap(1, "Masculino"));
+    }
+
+    @Test
+    void testRegistrar_CombinaCambiosEnUnSoloUpdate() {
+        // Arrange
+        EmpleadoDTO cambioPuesto = new EmpleadoDTO();
+        cambioPuesto.setPuesto("CEO");
+        EmpleadoDTO cambioEdad = new EmpleadoDTO();
+        cambioEdad.setEdad(27);
+
+        // Act
+        escrituraDiferida.registrar(1L, cambioPuesto);
+        escrituraDiferida.registrar(1L, cambioEdad);
+        Empleado pendiente = escrituraDiferida.pendiente(1L).get();
+        int escritos = escrituraDiferida.vaciar();
+
+        // Assert
+        assertEquals("CEO", pendiente.getPuesto());
+        assertEquals(27, pendiente.getEdad());
+        assertEquals("Heriberto", pendiente.getPrimer_nombre());
+        assertEquals(1, escritos);
+        verify(empleadoRepository, times(1)).findById(1L);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> parametros = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), parametros.capture());
+        assertEquals(1, parametros.getValue().size());
+        assertEquals(2, parametros.getValue().get(0)[7]);
+        verify(eventPublisher, times(1)).publishEvent(any(EmpleadoEvent.class));
+        assertFalse(escrituraDiferida.pendiente(1L).isPresent());
+    }
+
+    @Test
+    void testVaciar_UpdatedAtSeMarcaAlEscribir() {
+        // Arrange
+        EmpleadoDTO cambioPuesto = new EmpleadoDTO();
+        cambioPuesto.setPuesto("CEO");
+        escrituraDiferida.registrar(1L, cambioPuesto);
+        Timestamp antes = Timestamp.valueOf(LocalDateTime.now());
+
+        // Act
+        escrituraDiferida.vaciar();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> parametros = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), parametros.capture());
+        Timestamp marca = (Timestamp) parametros.getValue().get(0)[8];
+        assertFalse(marca.before(antes));
+    }
+
+    @Test
+    void testRegistrar_FechaInvalidaNoAlteraElBufer() {
+        // Arrange
+        EmpleadoDTO cambioPuesto = new EmpleadoDTO();
+        cambioPuesto.setPuesto("CEO");
+        EmpleadoDTO fechaInvalida = new EmpleadoDTO();
+        fechaInvalida.setPrimer_nombre("Otro");
+        fechaInvalida.setFecha_nacimiento("1998/07/08");
+        escrituraDiferida.registrar(1L, cambioPuesto);
+
+        // Act & Assert
+        assertThrows(InvalidDateFormatException.class, () -> escrituraDiferida.registrar(1L, fechaInvalida));
+        assertEquals("Heriberto", escrituraDiferida.pendiente(1L).get().getPrimer_nombre());
+    }
+
+    @Test
+    void testRegistrar_PuestoFueraDelCatalogo() {
+        // Arrange
+        EmpleadoDTO cambioPuesto = new EmpleadoDTO();
+        cambioPuesto.setPuesto("CEO");
+        EmpleadoDTO puestoDesconocido = new EmpleadoDTO();
+        puestoDesconocido.setPuesto("Astronauta");
+        escrituraDiferida.registrar(1L, cambioPuesto);
+
+        // Act & Assert
+        assertThrows(InvalidCatalogValueException.class, () -> escrituraDiferida.registrar(1L, puestoDesconocido));
+        assertEquals("CEO", escrituraDiferida.pendiente(1L).get().getPuesto());
+        assertEquals(2, catalogos.getPuestos().tamano());
+    }
+
+    @Test
+    void testDescartar_NoSeEscribeNada() {
+        // Arrange
+        EmpleadoDTO cambioPuesto = new EmpleadoDTO();
+        cambioPuesto.setPuesto("CEO");
+        escrituraDiferida.registrar(1L, cambioPuesto);
+
+        // Act
+        escrituraDiferida.descartar(1L);
+
+        // Assert
+        assertEquals(0, escrituraDiferida.vaciar());
+        assertTrue(escrituraDiferida.isHabilitada());
+    }
+
+}
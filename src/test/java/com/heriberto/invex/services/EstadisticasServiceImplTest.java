@@ -0,0 +1,211 @@
+package com.heriberto.invex.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.heriberto.invex.entities.Empleado;
+import com.heriberto.invex.entities.EstadisticasDTO;
+import com.heriberto.invex.events.EmpleadoEvent;
+import com.heriberto.invex.repositories.EmpleadoRepository;
+
+public class EstadisticasServiceImplTest {
+
+    @Mock
+    private EmpleadoRepository empleadoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private EstadisticasServiceImpl estadisticasService;
+
+    private Empleado Empleado1;
+    private Empleado Empleado2;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Empleado1 = new Empleado(1L, "Heriberto","" ,"Reyna", "Castro", 26, "Masculino", LocalDate.of(1998,07,8) , "Desarrollador");
+        Empleado2 = new Empleado(2L, "Ana","Christina" ,"Reyna", "Castro", 31, "Femenino", LocalDate.of(1993,04,3) , "Analista");
+
+        when(empleadoRepository.contarPorPuesto()).thenReturn(Collections.singletonList(new Object[] { "Desarrollador", 1L }));
+        when(empleadoRepository.contarPorSexo()).thenReturn(Collections.singletonList(new Object[] { "Masculino", 1L }));
+        when(empleadoRepository.contarPorEdad()).thenReturn(Collections.singletonList(new Object[] { 26, 1L }));
+        when(empleadoRepository.count()).thenReturn(1L);
+        estadisticasService.iniciar();
+    }
+
+    @Test
+    void testRecargar_DesdeConsultasAgrupadas() {
+        // Act
+        EstadisticasDTO estadisticas = estadisticasService.obtenerEstadisticas();
+
+        // Assert
+        assertEquals(1, estadisticas.getTotal());
+        assertEquals(1L, estadisticas.getPorPuesto().get("Desarrollador"));
+        assertEquals(1L, estadisticas.getPorSexo().get("Masculino"));
+        assertEquals(1L, estadisticas.getPorRangoEdad().get("20-29"));
+    }
+
+    @Test
+    void testAltaYBaja_ActualizanContadores() {
+        // Act
+        estadisticasService.alCambiarEmpleados(EmpleadoEvent.altas(Arrays.asList(Empleado2)));
+        estadisticasService.alCambiarEmpleados(EmpleadoEvent.baja(Empleado1));
+        EstadisticasDTO estadisticas = estadisticasService.obtenerEstadisticas();
+
+        // Assert
+        assertEquals(1, estadisticas.getTotal());
+        assertFalse(estadisticas.getPorPuesto().containsKey("Desarrollador"));
+        assertEquals(1L, estadisticas.getPorPuesto().get("Analista"));
+        assertEquals(1L, estadisticas.getPorSexo().get("Femenino"));
+        assertEquals(1L, estadisticas.getPorRangoEdad().get("30-39"));
+    }
+
+    @Test
+    void testModificacion_MueveEntreGrupos() {
+        // Arrange
+        Empleado anterior = new Empleado(Empleado1);
+        Empleado1.setPuesto("Gerente");
+        Empleado1.setEdad(41);
+
+        // Act
+        estadisticasService.alCambiarEmpleados(EmpleadoEvent.modificacion(anterior, Empleado1));
+        EstadisticasDTO estadisticas = estadisticasService.obtenerEstadisticas();
+
+        // Assert
+        assertEquals(1, estadisticas.getTotal());
+        assertEquals(1L, estadisticas.getPorPuesto().get("Gerente"));
+        assertFalse(estadisticas.getPorPuesto().containsKey("Desarrollador"));
+        assertEquals(1L, estadisticas.getPorRangoEdad().get("40-49"));
+    }
+
+    @Test
+    void testCargaMasiva_RecargaEnSegundoPlano() {
+        // Act
+        estadisticasService.alCambiarEmpleados(EmpleadoEvent.cargaMasiva(1000));
+        estadisticasService.alCambiarEmpleados(EmpleadoEvent.cargaMasiva(500));
+        boolean pendiente = estadisticasService.isRecargaPendiente();
+        long totalAntesDelRecalculo = estadisticasService.contarEmpleados();
+        estadisticasService.recargarPendiente();
+        estadisticasService.recargarPendiente();
+
+        // Assert
+        assertTrue(pendiente);
+        assertEquals(1501L, totalAntesDelRecalculo);
+        assertFalse(estadisticasService.isRecargaPendiente());
+        verify(empleadoRepository, times(2)).contarPorPuesto();
+    }
+
+    @Test
+    void testRecargar_RepiteCambiosRecibidosDuranteLasConsultas() {
+        // Arrange: un alta confirmada mientras se ejecutan las consultas
+        when(empleadoRepository.contarPorPuesto()).thenAnswer(invocacion -> {
+            estadisticasService.alCambiarEmpleados(EmpleadoEvent.altas(Arrays.asList(Empleado2)));
+            return Collections.singletonList(new Object[] { "Desarrollador", 1L });
+        });
+
+        // Act
+        estadisticasService.recargar();
+        EstadisticasDTO estadisticas = estadisticasService.obtenerEstadisticas();
+
+        // Assert
+        assertEquals(2, estadisticas.getTotal());
+        assertEquals(1L, estadisticas.getPorPuesto().get("Analista"));
+        assertEquals(1L, estadisticas.getPorRangoEdad().get("30-39"));
+    }
+
+    @Test
+    void testRecargar_CambioYaIncluidoEnLaInstantaneaNoSeCuentaDosVeces() {
+        // Arrange: el alta se confirma antes de que las consultas tomen la
+        // instantánea, pero el evento llega mientras se ejecutan
+        when(empleadoRepository.contarPorPuesto()).thenAnswer(invocacion -> {
+            estadisticasService.alCambiarEmpleados(EmpleadoEvent.altas(Arrays.asList(Empleado2)));
+            return Arrays.asList(new Object[] { "Desarrollador", 1L }, new Object[] { "Analista", 1L });
+        });
+        when(empleadoRepository.contarPorSexo()).thenReturn(
+                Arrays.asList(new Object[] { "Masculino", 1L }, new Object[] { "Femenino", 1L }));
+        when(empleadoRepository.contarPorEdad()).thenReturn(
+                Arrays.asList(new Object[] { 26, 1L }, new Object[] { 31, 1L }));
+        when(empleadoRepository.count()).thenReturn(2L);
+        when(empleadoRepository.findAllById(anyIterable())).thenReturn(Collections.singletonList(Empleado2));
+
+        // Act
+        estadisticasService.recargar();
+        EstadisticasDTO estadisticas = estadisticasService.obtenerEstadisticas();
+
+        // Assert
+        assertEquals(2, estadisticas.getTotal());
+        assertEquals(1L, estadisticas.getPorPuesto().get("Analista"));
+        assertEquals(1L, estadisticas.getPorSexo().get("Femenino"));
+        assertEquals(1L, estadisticas.getPorRangoEdad().get("30-39"));
+    }
+
+    @Test
+    void testRecargar_ModificacionDuranteLasConsultasMueveEntreGrupos() {
+        // Arrange: la instantánea ve el estado anterior y el evento llega
+        // mientras se ejecutan las consultas
+        Empleado anterior = new Empleado(Empleado1);
+        Empleado1.setPuesto("Gerente");
+        when(empleadoRepository.contarPorPuesto()).thenAnswer(invocacion -> {
+            estadisticasService.alCambiarEmpleados(EmpleadoEvent.modificacion(anterior, Empleado1));
+            return Collections.singletonList(new Object[] { "Desarrollador", 1L });
+        });
+        when(empleadoRepository.findAllById(anyIterable())).thenReturn(Collections.singletonList(anterior));
+
+        // Act
+        estadisticasService.recargar();
+        estadisticasService.alCambiarEmpleados(EmpleadoEvent.baja(Empleado1));
+        EstadisticasDTO estadisticas = estadisticasService.obtenerEstadisticas();
+
+        // Assert
+        assertEquals(0, estadisticas.getTotal());
+        assertTrue(estadisticas.getPorPuesto().isEmpty());
+        assertTrue(estadisticas.getPorRangoEdad().isEmpty());
+    }
+
+    @Test
+    void testIniciar_SinBaseDeDatosReintenta() {
+        // Arrange
+        when(empleadoRepository.contarPorPuesto()).thenThrow(new IllegalStateException("Sin conexión"));
+
+        // Act
+        estadisticasService.iniciar();
+
+        // Assert
+        assertTrue(estadisticasService.isRecargaPendiente());
+        assertEquals(1, estadisticasService.obtenerEstadisticas().getTotal());
+    }
+
+    @Test
+    void testReconciliarTotal_CorrigeDesviacion() {
+        // Arrange
+        when(empleadoRepository.count()).thenReturn(5L);
+
+        // Act
+        long antes = estadisticasService.contarEmpleados();
+        estadisticasService.reconciliarTotal();
+
+        // Assert
+        assertEquals(1L, antes);
+        assertEquals(5L, estadisticasService.contarEmpleados());
+        assertEquals(5, estadisticasService.obtenerEstadisticas().getTotal());
+    }
+
+}
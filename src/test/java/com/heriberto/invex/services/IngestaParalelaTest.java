@@ -0,0 +1,118 @@
+package com.heriberto.invex.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.heriberto.invex.catalogo.Catalogos;
+import com.heriberto.invex.entities.Empleado;
+import com.heriberto.invex.entities.EmpleadoDTO;
+import com.heriberto.invex.entities.MetricasIngestaDTO;
+import com.heriberto.invex.exceptions.InvalidDateFormatException;
+
+public class IngestaParalelaTest {
+
+    private final Catalogos catalogos = new Catalogos();
+
+    private final IngestaParalela ingesta = new IngestaParalela(4, 3, 2, catalogos,
+            Validation.buildDefaultValidatorFactory().getValidator());
+
+    @BeforeEach
+    void setUp() {
+        catalogos.getPuestos().cargar(Collections.singletonMap(1, "Desarrollador"));
+        catalogos.getSexos().cargar(Collections.singletonMap(1, "Masculino"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ingesta.detener();
+    }
+
+    @Test
+    void testProcesar_EntregaLosBloquesEnOrden() {
+        // Arrange
+        List<EmpleadoDTO> empleadosDTO = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            empleadosDTO.add(empleadoDTO("Nombre" + i, "08-07-1998"));
+        }
+        List<Integer> tamanos = new ArrayList<>();
+        List<String> nombres = new ArrayList<>();
+
+        // Act
+        int entregados = ingesta.procesar(empleadosDTO, bloque -> {
+            tamanos.add(bloque.size());
+            for (Empleado empleado : bloque) {
+                nombres.add(empleado.getPrimer_nombre());
+            }
+        });
+        MetricasIngestaDTO metricas = ingesta.getMetricas();
+
+        // Assert
+        assertEquals(10, entregados);
+        assertEquals(Arrays.asList(3, 3, 3, 1), tamanos);
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Nombre" + i, nombres.get(i));
+        }
+        assertEquals(1, metricas.getEjecuciones());
+        assertEquals(10, metricas.getFilas());
+        assertEquals(4, metricas.getParalelismo());
+    }
+
+    @Test
+    void testProcesar_RelanzaErroresDeConversion() {
+        // Arrange
+        List<EmpleadoDTO> empleadosDTO = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            empleadosDTO.add(empleadoDTO("Nombre" + i, i == 7 ? "1998/07/08" : "08-07-1998"));
+        }
+        List<Empleado> escritos = new ArrayList<>();
+
+        // Act & Assert
+        assertThrows(InvalidDateFormatException.class, () -> ingesta.procesar(empleadosDTO, escritos::addAll));
+        assertEquals(6, escritos.size());
+    }
+
+    @Test
+    void testProcesar_ValidaEnLaEtapaParalela() {
+        // Arrange
+        List<EmpleadoDTO> empleadosDTO = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            empleadosDTO.add(empleadoDTO("Nombre" + i, "08-07-1998"));
+        }
+        empleadosDTO.get(4).setApellido_paterno(null);
+        List<Empleado> escritos = new ArrayList<>();
+
+        // Act
+        ConstraintViolationException exception = assertThrows(ConstraintViolationException.class,
+                () -> ingesta.procesar(empleadosDTO, escritos::addAll));
+
+        // Assert
+        assertTrue(exception.getMessage().startsWith("Empleado inválido en la fila 5"));
+        assertEquals(3, escritos.size());
+    }
+
+    private static EmpleadoDTO empleadoDTO(String nombre, String fecha) {
+        EmpleadoDTO dto = new EmpleadoDTO();
+        dto.setPrimer_nombre(nombre);
+        dto.setApellido_paterno("Reyna");
+        dto.setApellido_materno("Castro");
+        dto.setEdad(26);
+        dto.setSexo("Masculino");
+        dto.setFecha_nacimiento(fecha);
+        dto.setPuesto("Desarrollador");
+        return dto;
+    }
+
+}
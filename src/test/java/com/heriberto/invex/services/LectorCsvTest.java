@@ -0,0 +1,85 @@
+package com.heriberto.invex.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class LectorCsvTest {
+
+    @Test
+    void testSiguienteFila_CamposEntreComillas() throws Exception {
+        // Arrange
+        LectorCsv lector = new LectorCsv(new StringReader("a,\"b,\"\"c\"\"\nd\",e\r\nf\n"));
+
+        // Act & Assert
+        assertEquals(Arrays.asList("a", "b,\"c\"\nd", "e"), lector.siguienteFila());
+        assertEquals(1, lector.getLinea());
+        assertEquals(Arrays.asList("f"), lector.siguienteFila());
+        assertEquals(3, lector.getLinea());
+        assertNull(lector.siguienteFila());
+    }
+
+    @Test
+    void testSiguienteFila_ComillasSinCerrarNoLeenElRestoDelArchivo() throws Exception {
+        // Arrange: la entrada no termina nunca; solo se sale si el lector se detiene
+        Sinfin entrada = new Sinfin('"');
+        LectorCsv lector = new LectorCsv(entrada, 64);
+
+        // Act
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, lector::siguienteFila);
+
+        // Assert
+        assertTrue(error.getMessage().startsWith("Comillas sin cerrar"));
+        assertTrue(entrada.leidos <= 66);
+        assertNull(lector.siguienteFila());
+        assertTrue(entrada.leidos <= 66);
+    }
+
+    @Test
+    void testSiguienteFila_CampoLargoRechazaSoloSuLinea() throws Exception {
+        // Arrange
+        char[] largo = new char[100];
+        Arrays.fill(largo, 'x');
+        LectorCsv lector = new LectorCsv(new StringReader("a,b\n" + new String(largo) + ",c\nd,e\n"), 64);
+
+        // Act & Assert
+        assertEquals(Arrays.asList("a", "b"), lector.siguienteFila());
+        assertThrows(IllegalArgumentException.class, lector::siguienteFila);
+        assertEquals(2, lector.getLinea());
+        assertEquals(Arrays.asList("d", "e"), lector.siguienteFila());
+        assertEquals(3, lector.getLinea());
+        assertNull(lector.siguienteFila());
+    }
+
+    // Devuelve el primer carácter y después 'x' sin fin
+    private static final class Sinfin extends Reader {
+
+        private final char primero;
+        private long leidos;
+
+        Sinfin(char primero) {
+            this.primero = primero;
+        }
+
+        @Override
+        public int read(char[] destino, int desde, int cantidad) {
+            for (int i = 0; i < cantidad; i++) {
+                destino[desde + i] = leidos++ == 0 ? primero : 'x';
+            }
+            return cantidad;
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.heriberto.invex.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.heriberto.invex.entities.Empleado;
+import com.heriberto.invex.entities.SnapshotDTO;
+import com.heriberto.invex.repositories.EmpleadoRepository;
+
+public class SnapshotServiceImplTest {
+
+    @TempDir
+    Path carpeta;
+
+    @Mock
+    private EmpleadoRepository empleadoRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private SnapshotServiceImpl snapshotService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(snapshotService, "directorio", carpeta.toString());
+        ReflectionTestUtils.setField(snapshotService, "tamanoPagina", 2);
+    }
+
+    @Test
+    void testExportarSnapshot_RecorrePorPaginas() throws Exception {
+        // Arrange
+        when(empleadoRepository.findPaginaDesde(eq(0L), any(Pageable.class))).thenReturn(Arrays.asList(
+                empleado(1L, "Heriberto"), empleado(2L, "Ana")));
+        when(empleadoRepository.findPaginaDesde(eq(2L), any(Pageable.class))).thenReturn(Arrays.asList(
+                empleado(5L, "Luis"), empleado(6L, "Eva")));
+        when(empleadoRepository.findPaginaDesde(eq(6L), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        // Act
+        SnapshotDTO snapshot = snapshotService.exportarSnapshot();
+
+        // Assert
+        assertEquals(4, snapshot.getFilas());
+        assertTrue(Files.exists(Paths.get(snapshot.getArchivo())));
+        verify(empleadoRepository, times(3)).findPaginaDesde(any(Long.class), any(Pageable.class));
+        verify(entityManager, times(3)).clear();
+        verify(empleadoRepository, never()).findAll();
+    }
+
+    @Test
+    void testExportarSnapshot_FalloAlMoverNoDejaTemporales() throws Exception {
+        // Arrange: un directorio con contenido ocupa el nombre de destino, así el movimiento falla
+        when(empleadoRepository.findPaginaDesde(eq(0L), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(empleado(1L, "Heriberto")));
+        DateTimeFormatter formato = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+        LocalDateTime ahora = LocalDateTime.now();
+        for (int segundos = 0; segundos < 10; segundos++) {
+            Path ocupado = carpeta.resolve("empleados-" + ahora.plusSeconds(segundos).format(formato) + ".snap");
+            Files.createFile(Files.createDirectories(ocupado).resolve("ocupado"));
+        }
+
+        // Act
+        assertThrows(UncheckedIOException.class, snapshotService::exportarSnapshot);
+
+        // Assert
+        try (Stream<Path> listado = Files.list(carpeta)) {
+            assertEquals(0, listado.filter(archivo -> archivo.toString().endsWith(".tmp")).count());
+        }
+    }
+
+    private static Empleado empleado(Long id, String nombre) {
+        return new Empleado(id, nombre, null, "Reyna", "Castro", 26, "Masculino", LocalDate.of(1998, 7, 8),
+                "Desarrollador");
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.heriberto.invex.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.heriberto.invex.entities.Empleado;
+
+public class EmpleadoSnapshotTest {
+
+    @TempDir
+    Path carpeta;
+
+    @Test
+    void testEscribirYLeer_RoundTrip() throws IOException {
+        // Arrange
+        EmpleadoSnapshotWriter writer = new EmpleadoSnapshotWriter();
+        writer.agregar(new Empleado(1L, "Heriberto", null, "Reyna", "Castro", 26, "Masculino", LocalDate.of(1998, 7, 8), "Desarrollador"));
+        writer.agregar(new Empleado(2L, "Ana", "Christina", "Reyna", "Castro", 31, "Femenino", LocalDate.of(1993, 4, 3), "Desarrollador"));
+        writer.agregar(new Empleado(3L, "José", "Ñoño", "Pérez", "López", 40, "Masculino", LocalDate.of(1984, 1, 20), "Analista"));
+        Path archivo = carpeta.resolve("empleados.snap");
+
+        // Act
+        long bytes = writer.escribir(archivo);
+
+        // Assert
+        assertEquals(Files.size(archivo), bytes);
+        try (EmpleadoSnapshotReader reader = EmpleadoSnapshotReader.abrir(archivo)) {
+            assertEquals(3, reader.getFilas());
+            assertEquals(3L, reader.ids().get(2));
+            assertEquals(LocalDate.of(1993, 4, 3), reader.fechaNacimiento(1));
+
+            EmpleadoSnapshotReader.Diccionario puestos = reader.puestos();
+            assertEquals(2, puestos.getEntradas());
+            assertEquals("Desarrollador", puestos.valorFila(0));
+            assertEquals("Analista", puestos.valorFila(2));
+            assertEquals(puestos.codigos().get(0), puestos.codigos().get(1));
+            assertEquals("Femenino", reader.sexos().valorFila(1));
+
+            EmpleadoSnapshotReader.Texto segundoNombre = reader.segundoNombre();
+            assertTrue(segundoNombre.esNulo(0));
+            assertNull(segundoNombre.valor(0));
+            assertFalse(segundoNombre.esNulo(2));
+            assertEquals("Ñoño", segundoNombre.valor(2));
+            assertEquals("Pérez", reader.apellidoPaterno().valor(2));
+            assertEquals("Heriberto", reader.primerNombre().valor(0));
+        }
+    }
+
+    @Test
+    void testRecorrerColumna_SinDeserializarFilas() throws IOException {
+        // Arrange
+        EmpleadoSnapshotWriter writer = new EmpleadoSnapshotWriter();
+        long sumaEsperada = 0;
+        for (int i = 0; i < 5000; i++) {
+            int edad = 18 + i % 50;
+            sumaEsperada += edad;
+            writer.agregar(new Empleado((long) i, "Nombre" + i, null, "Paterno", "Materno", edad,
+                    i % 2 == 0 ? "Masculino" : "Femenino", LocalDate.of(1990, 1, 1).plusDays(i), "Puesto" + (i % 7)));
+        }
+        Path archivo = carpeta.resolve("grande.snap");
+        writer.escribir(archivo);
+
+        // Act
+        long suma = 0;
+        try (EmpleadoSnapshotReader reader = EmpleadoSnapshotReader.abrir(archivo)) {
+            IntBuffer edades = reader.edades();
+            while (edades.hasRemaining()) {
+                suma += edades.get();
+            }
+            assertEquals(7, reader.puestos().getEntradas());
+            assertEquals("Nombre4999", reader.primerNombre().valor(4999));
+        }
+
+        // Assert
+        assertEquals(sumaEsperada, suma);
+    }
+
+    @Test
+    void testAbrir_ArchivoInvalido() throws IOException {
+        // Arrange
+        Path archivo = carpeta.resolve("invalido.snap");
+        Files.write(archivo, new byte[64]);
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> EmpleadoSnapshotReader.abrir(archivo));
+    }
+
+}